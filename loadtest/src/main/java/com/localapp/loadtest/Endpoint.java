@@ -0,0 +1,62 @@
+package com.localapp.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Endpoints the load generator exercises, keyed by the names used in the {@code mix} setting.
+ */
+enum Endpoint {
+    EVENTS("events") {
+        @Override
+        HttpRequest request(Workload w, Random r) {
+            return w.get("/api/events?city=" + enc(w.city(r)) + "&date=" + w.date(r)).build();
+        }
+    },
+    TONIGHT("tonight") {
+        @Override
+        HttpRequest request(Workload w, Random r) {
+            double[] at = w.location(r);
+            return w.get("/api/events/tonight?city=" + enc(w.city(r)) + "&lat=" + at[0] + "&lon=" + at[1]).build();
+        }
+    },
+    ARTIST("artist") {
+        @Override
+        HttpRequest request(Workload w, Random r) {
+            return w.get("/api/events/search/artist?artistName=" + enc(w.artist(r))).build();
+        }
+    },
+    LOGIN("login") {
+        @Override
+        HttpRequest request(Workload w, Random r) {
+            Workload.User u = w.user(r);
+            return w.post("/api/auth/login", Workload.credentials(u.username(), u.password())).build();
+        }
+    },
+    PROFILE("profile") {
+        @Override
+        HttpRequest request(Workload w, Random r) {
+            Workload.User u = w.user(r);
+            return w.get("/api/users/" + u.userId()).header("Authorization", "Bearer " + u.token()).build();
+        }
+    };
+
+    final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    abstract HttpRequest request(Workload w, Random r);
+
+    static Endpoint from(String key) {
+        for (Endpoint e : values()) if (e.key.equals(key)) return e;
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.localapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds) and outcome counts for one endpoint. Requests the app
+ * sheds with 503 are counted (as errors and as {@link #shed}) but kept out of the latency
+ * histogram, so percentiles describe the requests that were actually served.
+ */
+final class EndpointStats {
+    static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final LongAdder ok = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    /** Arrivals not sent because the in-flight limit was reached; counted as errors. */
+    final LongAdder dropped = new LongAdder();
+    /** 503 responses from the app's concurrency limit; included in {@link #errors}. */
+    final LongAdder shed = new LongAdder();
+
+    void record(long micros, int status) {
+        if (status == 503) {
+            shed.increment();
+            errors.increment();
+            return;
+        }
+        latency.recordValue(Math.min(micros, HIGHEST_MICROS));
+        if (status >= 200 && status < 300) ok.increment();
+        else errors.increment();
+    }
+
+    long requests() {
+        return ok.sum() + errors.sum() + dropped.sum();
+    }
+
+    double shedRate() {
+        long n = requests();
+        return n == 0 ? 0 : (double) shed.sum() / n;
+    }
+
+    double errorRate() {
+        long n = requests();
+        return n == 0 ? 0 : (double) (errors.sum() + dropped.sum()) / n;
+    }
+}
@@ -0,0 +1,163 @@
+package com.localapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays recorded Eventbrite search responses on {@code GET /v3/events/search/}.
+ * A recording named after the slugified {@code location.address} (e.g. {@code new-york.json})
+ * is served when present, otherwise {@code default.json}; a {@code q} parameter filters the
+ * recorded events by name. Every response is delayed by a log-normal base latency plus an
+ * occasional tail spike, and a configurable fraction fails with an error status.
+ */
+final class EventbriteStub implements AutoCloseable {
+    private static final String[] BUNDLED = {"default.json", "new-york.json"};
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<String, JsonNode> recordings = new HashMap<>();
+    private final Map<String, byte[]> encoded = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "eventbrite-stub");
+        t.setDaemon(true);
+        return t;
+    });
+    private final double latencyMillis;
+    private final double tailMillis;
+    private final double tailRate;
+    private final double errorRate;
+    private final int errorStatus;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    EventbriteStub(Settings s) throws IOException {
+        latencyMillis = s.getDouble("eventbrite.latency-ms");
+        tailMillis = s.getDouble("eventbrite.tail-ms");
+        tailRate = s.getDouble("eventbrite.tail-rate");
+        errorRate = s.getDouble("eventbrite.error-rate");
+        errorStatus = s.getInt("eventbrite.error-status");
+        loadRecordings(s.get("eventbrite.recordings", ""));
+
+        server = HttpServer.create(new InetSocketAddress(s.getInt("eventbrite.port")), 512);
+        server.setExecutor(workers);
+        server.createContext("/v3/events/search/", this::handle);
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void loadRecordings(String dir) throws IOException {
+        if (!dir.isEmpty()) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(dir), "*.json")) {
+                for (Path f : files) recordings.put(f.getFileName().toString(), json.readTree(f.toFile()));
+            }
+        } else {
+            for (String name : BUNDLED) {
+                try (InputStream in = EventbriteStub.class.getResourceAsStream("/eventbrite/" + name)) {
+                    if (in != null) recordings.put(name, json.readTree(in));
+                }
+            }
+        }
+        if (!recordings.containsKey("default.json")) throw new IllegalStateException("No default.json recording");
+        for (Map.Entry<String, JsonNode> e : recordings.entrySet()) encoded.put(e.getKey(), json.writeValueAsBytes(e.getValue()));
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.increment();
+        try (ex) {
+            sleep(delayMillis());
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.increment();
+                ex.sendResponseHeaders(errorStatus, -1);
+                return;
+            }
+            Map<String, String> q = query(ex.getRequestURI().getRawQuery());
+            String file = slug(q.getOrDefault("location.address", "")) + ".json";
+            if (!recordings.containsKey(file)) file = "default.json";
+
+            byte[] body;
+            String text = q.get("q");
+            if (text != null && !text.isBlank()) {
+                body = json.writeValueAsBytes(filter(recordings.get(file), text.toLowerCase(Locale.ROOT)));
+            } else {
+                body = encoded.get(file);
+            }
+            ex.getResponseHeaders().set("Content-Type", "application/json");
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private long delayMillis() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        double d = latencyMillis * Math.exp(0.25 * r.nextGaussian());
+        if (r.nextDouble() < tailRate) d += tailMillis;
+        return Math.round(d);
+    }
+
+    private ObjectNode filter(JsonNode recording, String text) {
+        ObjectNode out = json.createObjectNode();
+        ArrayNode events = out.putArray("events");
+        for (JsonNode ev : recording.path("events")) {
+            if (ev.path("name").path("text").asText("").toLowerCase(Locale.ROOT).contains(text)) events.add(ev);
+        }
+        return out;
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> out = new HashMap<>();
+        if (raw == null) return out;
+        for (String p : raw.split("&")) {
+            int eq = p.indexOf('=');
+            if (eq > 0) out.put(p.substring(0, eq), URLDecoder.decode(p.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static String slug(String s) {
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    String stats() {
+        return "eventbrite stub: " + requests.sum() + " requests, " + errors.sum() + " injected errors";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package com.localapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are issued on a fixed schedule of arrivals (uniform or
+ * Poisson) regardless of how fast the server answers, and latency is measured from each
+ * request's scheduled time. A slow server therefore shows up as queueing in the
+ * percentiles instead of as a silently lower request rate (coordinated omission).
+ */
+final class LoadGenerator {
+    private final Settings settings;
+    private final Workload workload;
+    private final HttpClient client;
+
+    LoadGenerator(Settings settings, Workload workload, HttpClient client) {
+        this.settings = settings;
+        this.workload = workload;
+        this.client = client;
+    }
+
+    Report run() throws InterruptedException {
+        Mix mix = new Mix(settings.getWeights("mix"));
+        double rate = settings.getDouble("rate");
+        boolean poisson = "poisson".equals(settings.get("arrival"));
+        int maxInFlight = settings.getInt("max-in-flight");
+        long warmupNanos = TimeUnit.SECONDS.toNanos(settings.getInt("warmup-s"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(settings.getInt("duration-s"));
+
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint e : mix.endpoints()) stats.put(e, new EndpointStats());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Random random = new Random(settings.getInt("seed"));
+
+        System.out.printf("Offering %.1f req/s (%s) for %d s after %d s warmup%n", rate, poisson ? "poisson" : "uniform",
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos, end = measureFrom + durationNanos;
+        double next = start;
+        while (true) {
+            double gap = 1e9 / rate;
+            next += poisson ? -Math.log(1 - random.nextDouble()) * gap : gap;
+            long intended = (long) next;
+            if (intended - end >= 0) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            Endpoint endpoint = mix.next(random);
+            EndpointStats s = stats.get(endpoint);
+            boolean measured = intended - measureFrom >= 0;
+            if (!inFlight.tryAcquire()) {
+                if (measured) s.dropped.increment();
+                continue;
+            }
+            HttpRequest request = endpoint.request(workload, random);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long micros = (System.nanoTime() - intended) / 1000;
+                inFlight.release();
+                if (measured) s.record(micros, error == null ? response.statusCode() : -1);
+            });
+        }
+        // Let outstanding requests finish or time out so they are counted
+        if (!inFlight.tryAcquire(maxInFlight, settings.getInt("request-timeout-ms") + 1000L, TimeUnit.MILLISECONDS)) {
+            System.out.println("Some requests were still outstanding at the end of the run");
+        }
+        return new Report(stats, TimeUnit.NANOSECONDS.toMillis(durationNanos) / 1000.0);
+    }
+}
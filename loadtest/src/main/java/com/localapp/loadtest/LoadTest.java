@@ -0,0 +1,189 @@
+package com.localapp.loadtest;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point.
+ * <pre>
+ * LoadTest stubs [key=value ...]  start the Eventbrite stub and DynamoDB Local, then wait
+ * LoadTest run   [key=value ...]  drive load against an already running app
+ * LoadTest sweep [key=value ...]  run once per rate in {@code sweep-rates} against a running app
+ * LoadTest all   [key=value ...]  stubs, launch the app jar with the loadtest profile, run, stop
+ * </pre>
+ * Defaults are in {@code loadtest.properties}. Exits with status 2 when {@code baseline}
+ * is set and a p99 or error-rate limit is exceeded.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !List.of("stubs", "run", "sweep", "all").contains(args[0])) {
+            System.err.println("Usage: LoadTest stubs|run|sweep|all [key=value ...]");
+            System.exit(1);
+        }
+        List<String> overrides = Arrays.asList(args).subList(1, args.length);
+        Settings settings = new Settings(overrides);
+        switch (args[0]) {
+            case "stubs" -> {
+                try (Stubs stubs = new Stubs(settings)) {
+                    System.out.println("Stubs running; start the app with --spring.profiles.active=loadtest. Ctrl-C to stop.");
+                    CountDownLatch forever = new CountDownLatch(1);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        System.out.println(stubs.eventbrite.stats());
+                        forever.countDown();
+                    }));
+                    forever.await();
+                }
+            }
+            case "run" -> System.exit(run(settings));
+            case "sweep" -> sweep(overrides);
+            case "all" -> {
+                int status;
+                try (Stubs stubs = new Stubs(settings)) {
+                    Process app = launchApp(settings);
+                    try {
+                        status = run(settings);
+                    } finally {
+                        app.destroy();
+                        app.waitFor();
+                    }
+                    System.out.println(stubs.eventbrite.stats());
+                }
+                System.exit(status);
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    private static final class Stubs implements AutoCloseable {
+        final EventbriteStub eventbrite;
+        final LocalDynamo dynamo;
+
+        Stubs(Settings s) throws Exception {
+            eventbrite = new EventbriteStub(s);
+            dynamo = new LocalDynamo(s);
+            System.out.println("Eventbrite stub on :" + eventbrite.port() + ", DynamoDB Local on :" + s.get("dynamodb.port"));
+        }
+
+        @Override
+        public void close() throws Exception {
+            eventbrite.close();
+            dynamo.close();
+        }
+    }
+
+    private static HttpClient client(Settings s) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(Executors.newFixedThreadPool(s.getInt("client-threads")))
+                .build();
+    }
+
+    private static int run(Settings s) throws Exception {
+        HttpClient client = client(s);
+        Workload workload = new Workload(s);
+        workload.prepareUsers(client, s.getInt("users"));
+
+        Report report = new LoadGenerator(s, workload, client).run();
+        report.print(System.out);
+        Path out = Path.of(s.get("output"));
+        report.write(out);
+        System.out.println("Histograms and summary written to " + out.toAbsolutePath());
+
+        String baseline = s.get("baseline", "");
+        if (baseline.isEmpty()) return 0;
+        Properties base = new Properties();
+        try (Reader r = Files.newBufferedReader(Path.of(baseline))) {
+            base.load(r);
+        }
+        List<String> regressions = report.regressions(base, s.getDouble("max-latency-regression"),
+                s.getDouble("max-error-rate-increase"));
+        regressions.forEach(r -> System.out.println("REGRESSION: " + r));
+        return regressions.isEmpty() ? 0 : 2;
+    }
+
+    /**
+     * Offers each rate in {@code sweep-rates} in turn, to show how goodput and latency behave
+     * below and past the app's saturation point. Results per rate go to {@code output/rate-N}.
+     */
+    private static void sweep(List<String> overrides) throws Exception {
+        Settings base = new Settings(overrides);
+        HttpClient client = client(base);
+        Workload workload = new Workload(base);
+        workload.prepareUsers(client, base.getInt("users"));
+
+        Map<Double, Report> results = new LinkedHashMap<>();
+        for (String rate : base.getList("sweep-rates")) {
+            List<String> o = new ArrayList<>(overrides);
+            o.add("rate=" + rate);
+            Report report = new LoadGenerator(new Settings(o), workload, client).run();
+            report.print(System.out);
+            report.write(Path.of(base.get("output"), "rate-" + rate));
+            results.put(Double.parseDouble(rate), report);
+        }
+        System.out.println();
+        Report.printSweep(System.out, results);
+    }
+
+    private static Process launchApp(Settings s) throws Exception {
+        Path appConfig = Files.createTempFile("appconfig", ".json");
+        try (InputStream in = LoadTest.class.getResourceAsStream("/appconfig.json")) {
+            Files.copy(in, appConfig, StandardCopyOption.REPLACE_EXISTING);
+        }
+        appConfig.toFile().deleteOnExit();
+
+        List<String> cmd = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        cmd.addAll(s.getList("app-jvm-args"));
+        cmd.addAll(List.of("-jar", s.get("app-jar"), "--spring.profiles.active=loadtest",
+                "--aws.appconfig.file=" + appConfig, "--server.port=" + s.get("app-port")));
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true)
+                .redirectOutput(new File(s.get("app-log"))).start();
+
+        // Public and answered without upstream calls, so a 200 means the app itself is serving
+        URL probe = new URL("http://localhost:" + s.get("app-port") + "/api/events/distances");
+        byte[] probeBody = "{\"originLat\":[40.7],\"originLon\":[-74.0],\"eventLat\":[40.8],\"eventLon\":[-73.9]}"
+                .getBytes(StandardCharsets.UTF_8);
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (!p.isAlive()) throw new IllegalStateException("App exited with " + p.exitValue() + "; see " + s.get("app-log"));
+            try {
+                HttpURLConnection c = (HttpURLConnection) probe.openConnection();
+                c.setConnectTimeout(200);
+                c.setRequestMethod("POST");
+                c.setRequestProperty("Content-Type", "application/json");
+                c.setDoOutput(true);
+                try (OutputStream out = c.getOutputStream()) {
+                    out.write(probeBody);
+                }
+                if (c.getResponseCode() == 200) return p;
+            } catch (java.io.IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        p.destroy();
+        throw new IllegalStateException("App did not start within 120 s");
+    }
+}
@@ -0,0 +1,81 @@
+package com.localapp.loadtest;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.net.URI;
+
+/**
+ * In-memory DynamoDB Local with the application's tables created. Set
+ * {@code dynamodb.embedded=false} to use an already running instance (e.g. the
+ * {@code amazon/dynamodb-local} container) on {@code dynamodb.port} instead.
+ */
+final class LocalDynamo implements AutoCloseable {
+    private final DynamoDBProxyServer server;
+    private final int port;
+
+    LocalDynamo(Settings s) throws Exception {
+        port = s.getInt("dynamodb.port");
+        if (s.getBoolean("dynamodb.embedded")) {
+            server = ServerRunner.createServerFromCommandLineArgs(
+                    new String[]{"-inMemory", "-sharedDb", "-port", Integer.toString(port)});
+            server.start();
+        } else {
+            server = null;
+        }
+        createTables();
+    }
+
+    private void createTables() {
+        try (DynamoDbClient client = DynamoDbClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + port))
+                .region(Region.US_EAST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .build()) {
+            // Mirrors the keys and index used by UserRepository and AiItineraryRepository
+            create(client, CreateTableRequest.builder()
+                    .tableName("Users")
+                    .billingMode(BillingMode.PAY_PER_REQUEST)
+                    .attributeDefinitions(attr("userId"), attr("username"))
+                    .keySchema(key("userId", KeyType.HASH))
+                    .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                            .indexName("UsernameIndex")
+                            .keySchema(key("username", KeyType.HASH))
+                            .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                            .build())
+                    .build());
+            create(client, CreateTableRequest.builder()
+                    .tableName("AiItineraries")
+                    .billingMode(BillingMode.PAY_PER_REQUEST)
+                    .attributeDefinitions(attr("userId"), attr("itineraryId"))
+                    .keySchema(key("userId", KeyType.HASH), key("itineraryId", KeyType.RANGE))
+                    .build());
+        }
+    }
+
+    private static void create(DynamoDbClient client, CreateTableRequest request) {
+        try {
+            client.createTable(request);
+        } catch (ResourceInUseException e) {
+            // Table survives from an earlier run against an external instance
+        }
+    }
+
+    private static AttributeDefinition attr(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+
+    private static KeySchemaElement key(String name, KeyType type) {
+        return KeySchemaElement.builder().attributeName(name).keyType(type).build();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (server != null) server.stop();
+    }
+}
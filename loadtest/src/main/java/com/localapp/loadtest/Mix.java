@@ -0,0 +1,38 @@
+package com.localapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of endpoint for each arrival.
+ */
+final class Mix {
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int[] cumulative;
+
+    Mix(Map<String, Integer> weights) {
+        List<Integer> totals = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> w : weights.entrySet()) {
+            if (w.getValue() <= 0) continue;
+            total += w.getValue();
+            endpoints.add(Endpoint.from(w.getKey()));
+            totals.add(total);
+        }
+        if (total == 0) throw new IllegalArgumentException("Mix has no positive weights");
+        cumulative = totals.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    Endpoint next(Random r) {
+        int x = r.nextInt(cumulative[cumulative.length - 1]);
+        int i = 0;
+        while (x >= cumulative[i]) i++;
+        return endpoints.get(i);
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+}
@@ -0,0 +1,123 @@
+package com.localapp.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-endpoint results: a console table, one {@code .hgrm} percentile distribution per
+ * endpoint and a {@code summary.properties} that later runs can use as a baseline.
+ */
+final class Report {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Endpoint, EndpointStats> stats;
+    private final double seconds;
+
+    Report(Map<Endpoint, EndpointStats> stats, double seconds) {
+        this.stats = stats;
+        this.seconds = seconds;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-9s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "ok/s", "errors", "shed",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> e : stats.entrySet()) {
+            EndpointStats s = e.getValue();
+            out.printf("%-9s %9d %9.1f %7.2f%% %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", e.getKey().key, s.requests(),
+                    s.ok.sum() / seconds, 100 * s.errorRate(), 100 * s.shedRate(), ms(s, 50), ms(s, 90), ms(s, 99),
+                    ms(s, 99.9), s.latency.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    /**
+     * One line per offered rate: total goodput, shed and other errors per second, and the
+     * p99 of served requests per endpoint. Past saturation goodput should stay flat while
+     * the excess is shed, rather than collapse as requests queue into timeouts.
+     */
+    static void printSweep(PrintStream out, Map<Double, Report> byRate) {
+        if (byRate.isEmpty()) return;
+        Report first = byRate.values().iterator().next();
+        out.printf("%9s %9s %9s %9s", "offered/s", "ok/s", "shed/s", "errors/s");
+        for (Endpoint e : first.stats.keySet()) out.printf(" %12s", e.key + " p99");
+        out.println();
+        for (Map.Entry<Double, Report> r : byRate.entrySet()) {
+            Report report = r.getValue();
+            long ok = 0, shed = 0, errors = 0;
+            for (EndpointStats s : report.stats.values()) {
+                ok += s.ok.sum();
+                shed += s.shed.sum();
+                errors += s.errors.sum() - s.shed.sum() + s.dropped.sum();
+            }
+            out.printf("%9.0f %9.1f %9.1f %9.1f", r.getKey(), ok / report.seconds, shed / report.seconds,
+                    errors / report.seconds);
+            for (EndpointStats s : report.stats.values()) out.printf(" %9.1f ms", ms(s, 99));
+            out.println();
+        }
+    }
+
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<Endpoint, EndpointStats> e : stats.entrySet()) {
+            try (OutputStream os = Files.newOutputStream(dir.resolve(e.getKey().key + ".hgrm"));
+                 PrintStream ps = new PrintStream(os)) {
+                e.getValue().latency.outputPercentileDistribution(ps, MICROS_PER_MILLI);
+            }
+        }
+        try (Writer w = Files.newBufferedWriter(dir.resolve("summary.properties"))) {
+            summary().store(w, "localGeoApp load test summary; latencies in milliseconds");
+        }
+    }
+
+    Properties summary() {
+        Properties p = new Properties();
+        for (Map.Entry<Endpoint, EndpointStats> e : stats.entrySet()) {
+            EndpointStats s = e.getValue();
+            String k = e.getKey().key;
+            p.setProperty(k + ".requests", Long.toString(s.requests()));
+            p.setProperty(k + ".throughput", String.format("%.2f", s.ok.sum() / seconds));
+            p.setProperty(k + ".error-rate", String.format("%.5f", s.errorRate()));
+            p.setProperty(k + ".shed-rate", String.format("%.5f", s.shedRate()));
+            p.setProperty(k + ".p50-ms", String.format("%.2f", ms(s, 50)));
+            p.setProperty(k + ".p99-ms", String.format("%.2f", ms(s, 99)));
+            p.setProperty(k + ".p999-ms", String.format("%.2f", ms(s, 99.9)));
+        }
+        return p;
+    }
+
+    /**
+     * Compares against a previous summary. Only endpoints present in both are checked.
+     *
+     * @param maxLatencyRegression Allowed relative p99 increase, e.g. 0.10
+     * @param maxErrorRateIncrease Allowed absolute error-rate increase, e.g. 0.01
+     * @return Human-readable violations, empty if within limits
+     */
+    List<String> regressions(Properties baseline, double maxLatencyRegression, double maxErrorRateIncrease) {
+        List<String> out = new ArrayList<>();
+        Properties now = summary();
+        for (Endpoint e : stats.keySet()) {
+            String p99 = e.key + ".p99-ms", err = e.key + ".error-rate";
+            if (baseline.getProperty(p99) == null) continue;
+            double before = Double.parseDouble(baseline.getProperty(p99)), after = Double.parseDouble(now.getProperty(p99));
+            if (after > before * (1 + maxLatencyRegression)) {
+                out.add(String.format("%s p99 %.1f ms vs baseline %.1f ms", e.key, after, before));
+            }
+            double errBefore = Double.parseDouble(baseline.getProperty(err, "0")), errAfter = Double.parseDouble(now.getProperty(err));
+            if (errAfter > errBefore + maxErrorRateIncrease) {
+                out.add(String.format("%s error rate %.2f%% vs baseline %.2f%%", e.key, 100 * errAfter, 100 * errBefore));
+            }
+        }
+        return out;
+    }
+
+    private static double ms(EndpointStats s, double percentile) {
+        return s.latency.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,71 @@
+package com.localapp.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load-test settings: defaults from {@code loadtest.properties}, overridden by
+ * {@code key=value} command-line arguments.
+ */
+final class Settings {
+    private final Properties props = new Properties();
+
+    Settings(List<String> overrides) {
+        try (InputStream in = Settings.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) props.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String o : overrides) {
+            int eq = o.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + o);
+            props.setProperty(o.substring(0, eq), o.substring(eq + 1));
+        }
+    }
+
+    String get(String key) {
+        String v = props.getProperty(key);
+        if (v == null) throw new IllegalArgumentException("Missing setting: " + key);
+        return v.trim();
+    }
+
+    String get(String key, String def) {
+        return props.getProperty(key, def).trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    List<String> getList(String key) {
+        List<String> out = new ArrayList<>();
+        for (String s : get(key).split(",")) if (!s.isBlank()) out.add(s.trim());
+        return out;
+    }
+
+    /**
+     * Parses "name:weight,name:weight" into an ordered map.
+     */
+    Map<String, Integer> getWeights(String key) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (String s : getList(key)) {
+            int sep = s.indexOf(':');
+            out.put(s.substring(0, sep).trim(), Integer.parseInt(s.substring(sep + 1).trim()));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,108 @@
+package com.localapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Request parameters and test users shared by all endpoints. Users are registered and
+ * logged in once before the run so profile calls carry a valid token.
+ */
+final class Workload {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    record User(String username, String password, String userId, String token) {
+    }
+
+    private final String target;
+    private final Duration timeout;
+    private final List<String> cities;
+    private final List<String> artists;
+    private final double[][] locations;
+    private final List<User> users = new ArrayList<>();
+
+    Workload(Settings s) {
+        target = s.get("target").replaceAll("/$", "");
+        timeout = Duration.ofMillis(s.getInt("request-timeout-ms"));
+        cities = s.getList("cities");
+        artists = s.getList("artists");
+        List<String> points = s.getList("locations");
+        locations = new double[points.size()][];
+        for (int i = 0; i < points.size(); i++) {
+            String[] p = points.get(i).split(":");
+            locations[i] = new double[]{Double.parseDouble(p[0]), Double.parseDouble(p[1])};
+        }
+    }
+
+    void prepareUsers(HttpClient client, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            String username = "loadtest-user-" + i, password = "loadtest-pass-" + i;
+            // Registration is not idempotent; repeat runs add rows but login still resolves the name
+            send(client, post("/api/auth/register", credentials(username, password)).build(), "register " + username);
+            String token = send(client, post("/api/auth/login", credentials(username, password)).build(), "login " + username);
+            users.add(new User(username, password, subject(token), token));
+        }
+    }
+
+    private static String send(HttpClient client, HttpRequest request, String what) throws IOException, InterruptedException {
+        HttpResponse<String> r = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (r.statusCode() != 200) throw new IllegalStateException(what + " failed with " + r.statusCode() + ": " + r.body());
+        return r.body();
+    }
+
+    private static String subject(String jwt) throws IOException {
+        byte[] payload = Base64.getUrlDecoder().decode(jwt.split("\\.")[1]);
+        return JSON.readTree(payload).path("sub").asText();
+    }
+
+    static String credentials(String username, String password) {
+        try {
+            return JSON.writeValueAsString(Map.of("username", username, "password", password));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(target + path)).timeout(timeout).GET();
+    }
+
+    HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(target + path)).timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    String city(Random r) {
+        return cities.get(r.nextInt(cities.size()));
+    }
+
+    String artist(Random r) {
+        return artists.get(r.nextInt(artists.size()));
+    }
+
+    double[] location(Random r) {
+        return locations[r.nextInt(locations.length)];
+    }
+
+    /** Today or one of the next six days, so cached and uncached queries both occur. */
+    String date(Random r) {
+        return LocalDate.now().plusDays(r.nextInt(7)).toString();
+    }
+
+    User user(Random r) {
+        if (users.isEmpty()) throw new IllegalStateException("No test users; set users above 0 for login and profile calls");
+        return users.get(r.nextInt(users.size()));
+    }
+}
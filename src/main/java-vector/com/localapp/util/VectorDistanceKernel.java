@@ -0,0 +1,58 @@
+package com.localapp.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API inner loop for {@link DistanceMatrix}. Compiled only by the {@code vector}
+ * Maven profile and only loaded when the {@code jdk.incubator.vector} module is present.
+ * The arcsine of the half chord uses an odd Taylor polynomial, accurate to about 1e-12
+ * relative error below {@link #POLY_LIMIT} (roughly 800 miles); lanes beyond it are
+ * finished with {@link Math#asin}.
+ */
+final class VectorDistanceKernel implements DistanceMatrix.RowKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double POLY_LIMIT = 0.1;
+    private static final double C3 = 1.0 / 6;
+    private static final double C5 = 3.0 / 40;
+    private static final double C7 = 15.0 / 336;
+    private static final double C9 = 105.0 / 3456;
+    private static final double C11 = 945.0 / 42240;
+
+    VectorDistanceKernel() {
+        if (SPECIES.length() < 2) throw new UnsupportedOperationException("No vector lanes for double");
+    }
+
+    @Override
+    public void rows(DistanceMatrix.Points o, DistanceMatrix.Points p, int rowFrom, int rowTo, int colFrom, int colTo, double[] out) {
+        int cols = p.size();
+        int lanes = SPECIES.length();
+        int upper = colFrom + SPECIES.loopBound(colTo - colFrom);
+        double scale = 2 * DistanceMatrix.EARTH_RADIUS_MILES;
+
+        for (int r = rowFrom; r < rowTo; r++) {
+            double ax = o.x[r], ay = o.y[r], az = o.z[r];
+            int base = r * cols;
+            int j = colFrom;
+            for (; j < upper; j += lanes) {
+                DoubleVector dx = DoubleVector.fromArray(SPECIES, p.x, j).sub(ax);
+                DoubleVector dy = DoubleVector.fromArray(SPECIES, p.y, j).sub(ay);
+                DoubleVector dz = DoubleVector.fromArray(SPECIES, p.z, j).sub(az);
+                DoubleVector h = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).sqrt().mul(0.5);
+                DoubleVector h2 = h.mul(h);
+                DoubleVector asin = h2.fma(C11, C9).mul(h2).add(C7).mul(h2).add(C5).mul(h2).add(C3).mul(h2).add(1.0).mul(h);
+                asin.mul(scale).intoArray(out, base + j);
+
+                VectorMask<Double> far = h.compare(VectorOperators.GT, POLY_LIMIT);
+                if (far.anyTrue()) {
+                    for (int lane = 0; lane < lanes; lane++) {
+                        if (far.laneIsSet(lane)) out[base + j + lane] = scale * Math.asin(Math.min(1.0, h.lane(lane)));
+                    }
+                }
+            }
+            if (j < colTo) DistanceMatrix.scalarRows(o, p, r, r + 1, j, colTo, out);
+        }
+    }
+}
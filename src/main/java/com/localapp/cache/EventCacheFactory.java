@@ -0,0 +1,61 @@
+package com.localapp.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates one {@link TwoLevelEventCache} per event source, all sharing a single remote
+ * connection pool and invalidation subscription.
+ */
+public class EventCacheFactory implements AutoCloseable {
+    private static final String KEY_PREFIX = "localgeoapp:events:";
+    private static final String CHANNEL = "localgeoapp:events:invalidate";
+
+    private final Duration nearTtl;
+    private final Duration remoteTtl;
+    private final long leaseMillis;
+    private final RespClient remote;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<TwoLevelEventCache> caches = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param nearTtl Near cache time-to-live
+     * @param remoteTtl Shared tier time-to-live
+     * @param leaseMillis Cross-node load lease duration
+     * @param remote Shared tier client, or null to run with near caches only
+     */
+    public EventCacheFactory(Duration nearTtl, Duration remoteTtl, long leaseMillis, RespClient remote) {
+        this.nearTtl = nearTtl;
+        this.remoteTtl = remoteTtl;
+        this.leaseMillis = leaseMillis;
+        this.remote = remote;
+        if (remote != null) {
+            remote.subscribe(CHANNEL, message -> caches.forEach(c -> c.onInvalidation(message)));
+        }
+    }
+
+    /**
+     * @return A factory producing in-process caches only
+     */
+    public static EventCacheFactory local(Duration ttl) {
+        return new EventCacheFactory(ttl, ttl, 0, null);
+    }
+
+    public TwoLevelEventCache create(String sourceName) {
+        TwoLevelEventCache cache = new TwoLevelEventCache(KEY_PREFIX + sourceName + ":", nearTtl, remote, remoteTtl,
+                leaseMillis, nodeId, CHANNEL);
+        caches.add(cache);
+        return cache;
+    }
+
+    public boolean isShared() {
+        return remote != null;
+    }
+
+    @Override
+    public void close() {
+        if (remote != null) remote.close();
+    }
+}
@@ -0,0 +1,126 @@
+package com.localapp.cache;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Compact binary encoding of event lists for the shared cache tier.
+ * Common field names are written as one-byte tags and values carry a one-byte type,
+ * which keeps entries several times smaller than JSON and avoids a JSON parse on read.
+ */
+public final class EventCodec {
+    private static final int VERSION = 1;
+    private static final String[] KNOWN_KEYS = {"id", "name", "url", "startDate", "image", "venue", "city",
+            "latitude", "longitude", "source"};
+    private static final Map<String, Integer> KEY_TAGS = new HashMap<>();
+    private static final int NAMED_KEY = 0xFF;
+
+    private static final int T_NULL = 0, T_STRING = 1, T_DOUBLE = 2, T_LONG = 3, T_INT = 4, T_BOOLEAN = 5;
+
+    static {
+        for (int i = 0; i < KNOWN_KEYS.length; i++) KEY_TAGS.put(KNOWN_KEYS[i], i);
+    }
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(List<Map<String, Object>> events) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(events.size() * 160);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            writeVarInt(out, events.size());
+            for (Map<String, Object> e : events) {
+                writeVarInt(out, e.size());
+                for (Map.Entry<String, Object> f : e.entrySet()) {
+                    Integer tag = KEY_TAGS.get(f.getKey());
+                    if (tag != null) {
+                        out.writeByte(tag);
+                    } else {
+                        out.writeByte(NAMED_KEY);
+                        out.writeUTF(f.getKey());
+                    }
+                    writeValue(out, f.getValue());
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<Map<String, Object>> decode(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported event codec version " + version);
+            int count = readVarInt(in);
+            List<Map<String, Object>> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int fields = readVarInt(in);
+                Map<String, Object> e = new HashMap<>(fields * 2);
+                for (int f = 0; f < fields; f++) {
+                    int tag = in.readUnsignedByte();
+                    String key = tag == NAMED_KEY ? in.readUTF() : KNOWN_KEYS[tag];
+                    e.put(key, readValue(in));
+                }
+                events.add(e);
+            }
+            return events;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object v) throws IOException {
+        if (v == null) {
+            out.writeByte(T_NULL);
+        } else if (v instanceof Double d) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble(d);
+        } else if (v instanceof Long l) {
+            out.writeByte(T_LONG);
+            out.writeLong(l);
+        } else if (v instanceof Integer i) {
+            out.writeByte(T_INT);
+            out.writeInt(i);
+        } else if (v instanceof Boolean b) {
+            out.writeByte(T_BOOLEAN);
+            out.writeBoolean(b);
+        } else {
+            out.writeByte(T_STRING);
+            out.writeUTF(v.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+            case T_NULL: return null;
+            case T_STRING: return in.readUTF();
+            case T_DOUBLE: return in.readDouble();
+            case T_LONG: return in.readLong();
+            case T_INT: return in.readInt();
+            case T_BOOLEAN: return in.readBoolean();
+            default: throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0, shift = 0, b;
+        do {
+            b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+}
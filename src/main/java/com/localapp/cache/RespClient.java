@@ -0,0 +1,218 @@
+package com.localapp.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Minimal blocking client for the Redis serialization protocol (RESP2).
+ * Covers only what the shared event cache needs: GET, SET with PX/NX, DEL, a scripted
+ * compare-and-delete, PUBLISH and SUBSCRIBE. Connections are pooled; a connection that sees an I/O error is discarded.
+ */
+public class RespClient implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RespClient.class);
+    private static final long RECONNECT_BACKOFF_MILLIS = 5000;
+    static final String DELETE_IF_EQUALS =
+            "if redis.call('get',KEYS[1])==ARGV[1] then return redis.call('del',KEYS[1]) end return 0";
+
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+    private final BlockingQueue<Connection> idle;
+    private volatile boolean closed;
+    private volatile long downUntil;
+
+    public RespClient(String host, int port, int timeoutMillis, int maxIdle) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    public byte[] get(String key) throws IOException {
+        return (byte[]) call("GET", key);
+    }
+
+    public void set(String key, byte[] value, long ttlMillis) throws IOException {
+        call("SET", key, value, "PX", Long.toString(ttlMillis));
+    }
+
+    /**
+     * @return true if the key did not exist and was set
+     */
+    public boolean setIfAbsent(String key, String value, long ttlMillis) throws IOException {
+        return "OK".equals(call("SET", key, value, "PX", Long.toString(ttlMillis), "NX"));
+    }
+
+    public void del(String key) throws IOException {
+        call("DEL", key);
+    }
+
+    /**
+     * Deletes the key only if it still holds {@code value}, checked and deleted on the server in one step.
+     *
+     * @return true if the key was deleted
+     */
+    public boolean deleteIfEquals(String key, String value) throws IOException {
+        return Long.valueOf(1).equals(call("EVAL", DELETE_IF_EQUALS, "1", key, value));
+    }
+
+    public void publish(String channel, String message) throws IOException {
+        call("PUBLISH", channel, message);
+    }
+
+    /**
+     * Listens on a channel from a dedicated daemon thread, reconnecting after failures until closed.
+     */
+    public void subscribe(String channel, Consumer<String> listener) {
+        Thread t = new Thread(() -> {
+            while (!closed) {
+                try (Connection c = new Connection(0)) {
+                    c.write("SUBSCRIBE", channel);
+                    c.read();
+                    while (!closed) {
+                        Object reply = c.read();
+                        if (reply instanceof Object[] msg && msg.length == 3 && "message".equals(text(msg[0]))) {
+                            listener.accept(text(msg[2]));
+                        }
+                    }
+                } catch (IOException e) {
+                    if (closed) return;
+                    log.warn("Subscription to {} lost: {}", channel, e.getMessage());
+                    sleepQuietly(1000);
+                }
+            }
+        }, "resp-subscriber-" + channel);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private Object call(Object... args) throws IOException {
+        Connection c = idle.poll();
+        if (c == null) c = connect();
+        try {
+            c.write(args);
+            Object reply = c.read();
+            if (!idle.offer(c)) c.close();
+            return reply;
+        } catch (IOException e) {
+            c.close();
+            throw e;
+        }
+    }
+
+    /** Fails fast for a while after a failed connect so an unreachable server does not add latency to every call. */
+    private Connection connect() throws IOException {
+        if (System.currentTimeMillis() < downUntil) throw new IOException("Server marked unavailable");
+        try {
+            return new Connection(timeoutMillis);
+        } catch (IOException e) {
+            downUntil = System.currentTimeMillis() + RECONNECT_BACKOFF_MILLIS;
+            throw e;
+        }
+    }
+
+    private static String text(Object o) {
+        return o instanceof byte[] b ? new String(b, StandardCharsets.UTF_8) : String.valueOf(o);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection c;
+        while ((c = idle.poll()) != null) c.close();
+    }
+
+    private final class Connection implements Closeable {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+
+        Connection(int soTimeout) throws IOException {
+            socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(soTimeout);
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        void write(Object... args) throws IOException {
+            out.write(('*' + Integer.toString(args.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            for (Object a : args) {
+                byte[] b = a instanceof byte[] bytes ? bytes : a.toString().getBytes(StandardCharsets.UTF_8);
+                out.write(('$' + Integer.toString(b.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(b);
+                out.write('\r');
+                out.write('\n');
+            }
+            out.flush();
+        }
+
+        Object read() throws IOException {
+            int type = in.read();
+            if (type < 0) throw new EOFException("Connection closed");
+            String line = readLine();
+            switch (type) {
+                case '+':
+                    return line;
+                case '-':
+                    throw new IOException("Redis error: " + line);
+                case ':':
+                    return Long.parseLong(line);
+                case '$': {
+                    int len = Integer.parseInt(line);
+                    if (len < 0) return null;
+                    byte[] b = new byte[len];
+                    in.readFully(b);
+                    readLine();
+                    return b;
+                }
+                case '*': {
+                    int len = Integer.parseInt(line);
+                    if (len < 0) return null;
+                    Object[] items = new Object[len];
+                    for (int i = 0; i < len; i++) items[i] = read();
+                    return items;
+                }
+                default:
+                    throw new IOException("Unexpected RESP type: " + (char) type);
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c < 0) throw new EOFException("Connection closed");
+                sb.append((char) c);
+            }
+            in.read();
+            return sb.toString();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already broken
+            }
+        }
+    }
+}
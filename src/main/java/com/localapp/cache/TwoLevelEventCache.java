@@ -0,0 +1,177 @@
+package com.localapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Event list cache with an in-process near tier and an optional shared remote tier.
+ * Reads go near cache, then remote; a miss in both loads once per node (Caffeine
+ * single-flight) and, with a remote tier, once across nodes: the loader runs only on
+ * the node that wins a short lease key, while the others poll the remote tier for its
+ * result until the lease or the caller's wait budget runs out and then load themselves. Fresh values are published on an invalidation channel so other nodes drop
+ * their stale near entries. Remote failures degrade to near-cache-only behaviour.
+ */
+public class TwoLevelEventCache {
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelEventCache.class);
+    private static final long LEASE_POLL_MILLIS = 50;
+
+    private final String prefix;
+    private final Cache<String, List<Map<String, Object>>> near;
+    private final RespClient remote;
+    private final long remoteTtlMillis;
+    private final long leaseMillis;
+    private final String nodeId;
+    private final String channel;
+
+    /**
+     * @param prefix Key prefix in the remote tier, e.g. "localgeoapp:events:eventbrite:"
+     * @param nearTtl Near cache time-to-live
+     * @param remote Shared tier client, or null for near-cache only
+     * @param remoteTtl Remote tier time-to-live
+     * @param leaseMillis How long one node may hold the load lease for a key
+     * @param nodeId Identifier of this node, used to ignore its own invalidations
+     * @param channel Invalidation pub/sub channel
+     */
+    TwoLevelEventCache(String prefix, Duration nearTtl, RespClient remote, Duration remoteTtl, long leaseMillis,
+                       String nodeId, String channel) {
+        this.prefix = prefix;
+        this.near = Caffeine.newBuilder().maximumSize(500).expireAfterWrite(nearTtl).build();
+        this.remote = remote;
+        this.remoteTtlMillis = remoteTtl.toMillis();
+        this.leaseMillis = leaseMillis;
+        this.nodeId = nodeId;
+        this.channel = channel;
+    }
+
+    /**
+     * @return The near-cache entry, without touching the remote tier
+     */
+    public List<Map<String, Object>> getIfPresent(String key) {
+        return near.getIfPresent(key);
+    }
+
+    /**
+     * Returns the cached value or loads it, coalescing concurrent loads on this node and across nodes.
+     */
+    public List<Map<String, Object>> get(String key, Callable<List<Map<String, Object>>> loader) throws Exception {
+        return get(key, loader, leaseMillis);
+    }
+
+    /**
+     * Same as {@link #get(String, Callable)}, but waits at most {@code maxWaitMillis} for another
+     * node's load before loading here, so a caller with a deadline is not held for a whole lease.
+     */
+    public List<Map<String, Object>> get(String key, Callable<List<Map<String, Object>>> loader, long maxWaitMillis)
+            throws Exception {
+        try {
+            return near.get(key, k -> {
+                try {
+                    return Collections.unmodifiableList(remote != null ? loadShared(k, loader, maxWaitMillis) : loader.call());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    public void invalidate(String key) {
+        near.invalidate(key);
+        if (remote == null) return;
+        try {
+            remote.del(prefix + key);
+            remote.publish(channel, nodeId + " " + prefix + key);
+        } catch (IOException e) {
+            log.warn("Remote invalidation of {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Handles a message from the invalidation channel.
+     */
+    void onInvalidation(String message) {
+        int sep = message.indexOf(' ');
+        if (sep < 0 || message.substring(0, sep).equals(nodeId)) return;
+        String fullKey = message.substring(sep + 1);
+        if (fullKey.startsWith(prefix)) near.invalidate(fullKey.substring(prefix.length()));
+    }
+
+    private List<Map<String, Object>> loadShared(String key, Callable<List<Map<String, Object>>> loader, long maxWaitMillis)
+            throws Exception {
+        String remoteKey = prefix + key;
+        List<Map<String, Object>> value = remoteGet(remoteKey);
+        if (value != null) return value;
+
+        String token = UUID.randomUUID().toString();
+        String leaseKey = remoteKey + ":lease";
+        if (tryLease(leaseKey, token)) {
+            try {
+                value = loader.call();
+                remotePut(remoteKey, value);
+                return value;
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+
+        // Another node is loading; wait for its result, then fall back to loading here
+        long deadline = System.currentTimeMillis() + Math.min(leaseMillis, maxWaitMillis);
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(LEASE_POLL_MILLIS);
+            value = remoteGet(remoteKey);
+            if (value != null) return value;
+        }
+        value = loader.call();
+        remotePut(remoteKey, value);
+        return value;
+    }
+
+    private List<Map<String, Object>> remoteGet(String remoteKey) {
+        try {
+            byte[] data = remote.get(remoteKey);
+            return data != null ? EventCodec.decode(data) : null;
+        } catch (Exception e) {
+            log.warn("Remote cache read of {} failed: {}", remoteKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void remotePut(String remoteKey, List<Map<String, Object>> value) {
+        try {
+            remote.set(remoteKey, EventCodec.encode(value), remoteTtlMillis);
+            remote.publish(channel, nodeId + " " + remoteKey);
+        } catch (Exception e) {
+            log.warn("Remote cache write of {} failed: {}", remoteKey, e.getMessage());
+        }
+    }
+
+    private boolean tryLease(String leaseKey, String token) {
+        try {
+            return remote.setIfAbsent(leaseKey, token, leaseMillis);
+        } catch (IOException e) {
+            // Without the remote tier every node loads for itself
+            return true;
+        }
+    }
+
+    /** Deletes the lease only if still ours; a lease that expired and was re-acquired elsewhere is left alone. */
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            remote.deleteIfEquals(leaseKey, token);
+        } catch (IOException e) {
+            log.debug("Lease release for {} failed, it will expire: {}", leaseKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.localapp.config;
+
+import com.localapp.limit.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the adaptive concurrency limit applied to all API requests by
+ * {@link ConcurrencyLimitFilter}.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${limiter.initial-limit:40}") int initialLimit,
+            @Value("${limiter.min-limit:8}") int minLimit,
+            @Value("${limiter.max-limit:150}") int maxLimit,
+            @Value("${limiter.latency-tolerance:2.0}") double tolerance,
+            @Value("${limiter.window-ms:200}") long windowMillis,
+            @Value("${limiter.window-min-samples:20}") int windowMinSamples,
+            @Value("${limiter.share.read:1.0}") double readShare,
+            @Value("${limiter.share.search:0.8}") double searchShare,
+            @Value("${limiter.share.login:0.6}") double loginShare) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, windowMillis, windowMinSamples,
+                new double[]{readShare, searchShare, loginShare});
+    }
+}
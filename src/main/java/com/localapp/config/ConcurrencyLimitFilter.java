@@ -0,0 +1,120 @@
+package com.localapp.config;
+
+import com.localapp.limit.AdaptiveConcurrencyLimiter;
+import com.localapp.limit.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits API requests through the {@link AdaptiveConcurrencyLimiter} before any other
+ * filter runs, so an overloaded instance rejects excess work in microseconds with a 503
+ * and {@code Retry-After} instead of queueing it until every request times out.
+ * Rejections carry the same CORS headers Spring Security would add, so the cross-origin
+ * frontend can read the status and {@code Retry-After}. They are not logged one by one;
+ * a summary line is written at most every {@link #LOG_INTERVAL_SECONDS} seconds.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final long LOG_INTERVAL_SECONDS = 10;
+    private static final byte[] BODY = "Service overloaded, retry later".getBytes(StandardCharsets.UTF_8);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CorsConfigurationSource corsSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final AtomicLong nextLogNanos = new AtomicLong(System.nanoTime());
+    private volatile long rejectedAtLastLog;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                  @Qualifier("corsConfigurationSource") CorsConfigurationSource corsSource,
+                                  @Value("${limiter.enabled:true}") boolean enabled,
+                                  @Value("${limiter.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limiter = limiter;
+        this.corsSource = corsSource;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire(priority)) {
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = false;
+        try {
+            chain.doFilter(request, response);
+            // Streaming responses run on after this thread returns; their duration says nothing about load
+            if (!request.isAsyncStarted()) {
+                int status = response.getStatus();
+                limiter.release(System.nanoTime() - start, status == 503 || status == 504);
+                sampled = true;
+            }
+        } finally {
+            if (!sampled) limiter.releaseWithoutSample();
+        }
+    }
+
+    /**
+     * Classifies by route: listings, map and profile reads are normally cache hits, the artist
+     * search and AI generation wait on upstream APIs, route optimization and distance matrices
+     * are computed per request, and auth endpoints are the cheapest to defer.
+     */
+    static Priority classify(String method, String uri) {
+        if (uri.startsWith("/api/auth/")) return Priority.LOGIN;
+        if (uri.startsWith("/api/events/search/") || uri.startsWith("/api/itinerary/generate")
+                || uri.startsWith("/api/itinerary/optimize") || uri.startsWith("/api/events/distances")) {
+            return Priority.SEARCH;
+        }
+        return Priority.READ;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CorsConfiguration cors = corsSource.getCorsConfiguration(request);
+        // A disallowed origin gets the same 403 the security chain's CORS filter would send
+        if (cors != null && !corsProcessor.processRequest(cors, request, response)) return;
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", retryAfterSeconds);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setContentLength(BODY.length);
+        response.getOutputStream().write(BODY);
+
+        long now = System.nanoTime(), next = nextLogNanos.get();
+        if (now - next >= 0 && nextLogNanos.compareAndSet(next, now + TimeUnit.SECONDS.toNanos(LOG_INTERVAL_SECONDS))) {
+            long total = limiter.getRejected();
+            logger.warn("Shedding load: {} requests rejected since the last report, limit {}, in flight {}",
+                    total - rejectedAtLastLog, limiter.getLimit(), limiter.getInFlight());
+            rejectedAtLastLog = total;
+        }
+    }
+}
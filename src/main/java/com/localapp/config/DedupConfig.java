@@ -0,0 +1,21 @@
+package com.localapp.config;
+
+import com.localapp.util.EventDeduplicator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for cross-provider event deduplication.
+ */
+@Configuration
+public class DedupConfig {
+
+    @Bean
+    public EventDeduplicator eventDeduplicator(
+            @Value("${events.dedup.near-duplicates:true}") boolean nearDuplicates,
+            @Value("${events.dedup.time-tolerance-minutes:30}") long timeToleranceMinutes,
+            @Value("${events.dedup.venue-radius-miles:0.15}") double venueRadiusMiles) {
+        return new EventDeduplicator(nearDuplicates, timeToleranceMinutes * 60, venueRadiusMiles);
+    }
+}
@@ -1,24 +1,62 @@
 package com.localapp.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.InstanceProfileCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+import java.net.URI;
 
 /**
  * Configuration for DynamoDB client and enhanced client.
+ * The AWS beans are lazy: they are built on the first repository call rather than at
+ * startup, and consumers inject them with {@code @Lazy} so no proxy target is resolved early.
  */
 @Configuration
+@Lazy
 public class DynamoDbConfig {
 
+    /**
+     * @param provider "default" probes the full provider chain; on EC2 "instance-profile"
+     *                 goes straight to instance metadata, skipping the other probes; "local"
+     *                 signs with fixed dummy keys for DynamoDB Local
+     */
     @Bean
-    public DynamoDbClient dynamoDbClient() {
-        return DynamoDbClient.builder()
-                .region(Region.US_EAST_2)
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+    public AwsCredentialsProvider awsCredentialsProvider(@Value("${aws.credentials.provider:default}") String provider) {
+        switch (provider) {
+            case "instance-profile":
+                return InstanceProfileCredentialsProvider.create();
+            case "environment":
+                return EnvironmentVariableCredentialsProvider.create();
+            case "profile":
+                return ProfileCredentialsProvider.create();
+            case "local":
+                return StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local"));
+            default:
+                return DefaultCredentialsProvider.create();
+        }
+    }
+
+    @Bean
+    public DynamoDbClient dynamoDbClient(AwsCredentialsProvider awsCredentialsProvider,
+                                         @Value("${aws.dynamodb.region:us-east-2}") String region,
+                                         @Value("${aws.dynamodb.endpoint:}") String endpoint) {
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider);
+        if (!endpoint.isEmpty()) builder.endpointOverride(URI.create(endpoint));
+        return builder.build();
     }
 
     @Bean
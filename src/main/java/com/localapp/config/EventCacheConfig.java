@@ -0,0 +1,34 @@
+package com.localapp.config;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.cache.RespClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the event result caches: an in-process near cache per source, plus
+ * an optional Redis-protocol shared tier for multi-instance deployments.
+ */
+@Configuration
+public class EventCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public EventCacheFactory eventCacheFactory(
+            @Value("${events.sources.cache-ttl-seconds:300}") long ttlSeconds,
+            @Value("${events.cache.near-ttl-seconds:60}") long nearTtlSeconds,
+            @Value("${events.cache.remote.enabled:false}") boolean remoteEnabled,
+            @Value("${events.cache.remote.host:localhost}") String host,
+            @Value("${events.cache.remote.port:6379}") int port,
+            @Value("${events.cache.remote.timeout-ms:200}") int timeoutMillis,
+            @Value("${events.cache.remote.lease-ms:5000}") long leaseMillis) {
+        if (!remoteEnabled) {
+            return EventCacheFactory.local(Duration.ofSeconds(ttlSeconds));
+        }
+        RespClient client = new RespClient(host, port, timeoutMillis, 16);
+        return new EventCacheFactory(Duration.ofSeconds(Math.min(nearTtlSeconds, ttlSeconds)),
+                Duration.ofSeconds(ttlSeconds), leaseMillis, client);
+    }
+}
@@ -1,8 +1,10 @@
 package com.localapp.config;
 
+import com.localapp.service.TokenBudgetExceededException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,8 +12,14 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.context.request.ServletWebRequest;
 
+import java.net.SocketTimeoutException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -32,6 +40,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid input: " + e.getMessage());
     }
 
+    /**
+     * Upstream timeouts and full executors are expected under overload; a stack trace per
+     * request would only add to the load, so these are logged as one line.
+     */
+    @ExceptionHandler({RejectedExecutionException.class, TimeoutException.class})
+    public ResponseEntity<String> handleOverload(Exception e, ServletWebRequest request) {
+        logger.warn("Overload on request {}: {}", request.getRequest().getRequestURI(), e.toString());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service temporarily unavailable: " + e.getMessage());
+    }
+
+    /**
+     * An upstream call that timed out is overload like any other timeout; one that could not
+     * connect or resolve the host is an upstream failure a retry in a second will not fix.
+     */
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<String> handleUpstreamUnreachable(ResourceAccessException e, ServletWebRequest request) {
+        if (isTimeout(e)) return handleOverload(e, request);
+        logger.warn("Upstream unreachable on request {}: {}", request.getRequest().getRequestURI(), e.toString());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Upstream service unavailable: " + e.getMessage());
+    }
+
+    static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof HttpConnectTimeoutException) return false;
+            if (t instanceof SocketTimeoutException || t instanceof HttpTimeoutException || t instanceof TimeoutException) return true;
+        }
+        return false;
+    }
+
+    @ExceptionHandler(TokenBudgetExceededException.class)
+    public ResponseEntity<String> handleTokenBudgetExceeded(TokenBudgetExceededException e, ServletWebRequest request) {
+        String userId = getUserId();
+        logger.warn("Token budget exceeded for user {} on request {}", userId, request.getRequest().getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Rate limited: " + e.getMessage());
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<String> handleValidationException(ConstraintViolationException e, ServletWebRequest request) {
         String userId = getUserId();
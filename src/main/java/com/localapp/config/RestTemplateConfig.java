@@ -1,14 +1,37 @@
 package com.localapp.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
 
+    /**
+     * Client for event provider APIs. Runs on the JDK HTTP client, where interrupting the
+     * calling thread aborts the exchange, so a cancelled hedged request releases its connection.
+     * Responses are bounded by the source timeout as well, so an exchange nobody interrupts
+     * cannot hold a fetch thread after its result is no longer wanted.
+     */
+    @Bean
+    public RestTemplate eventSourceRestTemplate(@Value("${events.sources.eventbrite.timeout-ms:4000}") long timeoutMillis) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+        return new RestTemplate(factory);
+    }
+}
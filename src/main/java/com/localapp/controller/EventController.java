@@ -1,6 +1,11 @@
 package com.localapp.controller;
 
+import com.localapp.model.dto.DistanceMatrixRequest;
+import com.localapp.model.dto.DistanceMatrixResponse;
 import com.localapp.service.EventService;
+import com.localapp.service.source.EventAggregator;
+import com.localapp.service.store.CityEventStore;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,14 +20,20 @@ import java.util.Map;
 @RequestMapping("/api/events")
 public class EventController {
     private final EventService eventService;
+    private final EventAggregator eventAggregator;
+    private final CityEventStore eventStore;
 
     /**
      * Constructs a new EventController with the required EventService.
      * @param eventService Service to handle event operations
+     * @param eventAggregator Fan-out over event providers, used for source metrics
+     * @param eventStore Time-sorted event store, used for memory statistics
      */
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventAggregator eventAggregator, CityEventStore eventStore) {
         this.eventService = eventService;
+        this.eventAggregator = eventAggregator;
+        this.eventStore = eventStore;
     }
 
     /**
@@ -83,4 +94,65 @@ public class EventController {
         List<Map<String, Object>> events = eventService.fetchTonightEvents(city, lat, lon, mood);
         return ResponseEntity.ok(events);
     }
+
+    /**
+     * Returns the events of a day inside a map viewport, pre-clustered on the server so the
+     * response size depends on the screen, not on how many events the city has.
+     *
+     * @param city The city to search events in
+     * @param date Event date (format: YYYY-MM-DD), defaults to today
+     * @param south Southern edge of the viewport in degrees
+     * @param west Western edge of the viewport in degrees
+     * @param north Northern edge of the viewport in degrees
+     * @param east Eastern edge of the viewport in degrees
+     * @param zoom Map zoom level; clusters are grid cells about 64 px wide at this zoom
+     * @return Clusters with event count, centroid and representative events
+     */
+    @GetMapping("/viewport")
+    public ResponseEntity<Map<String, Object>> getViewport(
+            @RequestParam(defaultValue = "New York") String city,
+            @RequestParam(required = false) String date,
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam int zoom) {
+
+        if (date == null || date.isEmpty()) {
+            date = java.time.LocalDate.now().toString();
+        }
+        return ResponseEntity.ok(eventService.fetchViewportClusters(city, date, south, west, north, east, zoom));
+    }
+
+    /**
+     * Computes distances from several origins (user location, hotel, saved events) to many events in one call.
+     *
+     * @param request Origin and event coordinates as parallel latitude/longitude arrays
+     * @return Row-major origins x events matrix of distances in miles
+     */
+    @PostMapping("/distances")
+    public ResponseEntity<DistanceMatrixResponse> getDistances(@Valid @RequestBody DistanceMatrixRequest request) {
+        return ResponseEntity.ok(eventService.computeDistances(request));
+    }
+
+    /**
+     * Reports per-provider request, cache, timeout and error counters, plus hedging
+     * counters for sources that hedge their upstream calls.
+     *
+     * @return Metrics keyed by source name
+     */
+    @GetMapping("/sources")
+    public ResponseEntity<Map<String, Map<String, Object>>> getSourceMetrics() {
+        return ResponseEntity.ok(eventAggregator.getMetricsSnapshot());
+    }
+
+    /**
+     * Reports how many day segments the event store holds and their estimated memory use.
+     *
+     * @return Segment and event counts, bytes, and bytes per 10k events
+     */
+    @GetMapping("/store")
+    public ResponseEntity<Map<String, Object>> getStoreStats() {
+        return ResponseEntity.ok(eventStore.stats());
+    }
 }
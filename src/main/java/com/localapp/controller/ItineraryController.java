@@ -0,0 +1,190 @@
+package com.localapp.controller;
+
+import com.localapp.model.entity.AiItinerary;
+import com.localapp.repository.AiItineraryRepository;
+import com.localapp.service.AiItineraryService;
+import com.localapp.service.ItineraryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for building itineraries from a user's saved events.
+ */
+@RestController
+@RequestMapping("/api/itinerary")
+public class ItineraryController {
+    private static final long GENERATE_TIMEOUT_SECONDS = 120;
+
+    private final ItineraryService itineraryService;
+    private final AiItineraryService aiItineraryService;
+    private final AiItineraryRepository aiItineraryRepository;
+
+    /**
+     * Constructs a new ItineraryController with the required services.
+     * @param itineraryService Service to handle itinerary operations
+     * @param aiItineraryService Service generating AI itineraries
+     * @param aiItineraryRepository Storage for users' AI itineraries
+     */
+    @Autowired
+    public ItineraryController(ItineraryService itineraryService, AiItineraryService aiItineraryService,
+                               AiItineraryRepository aiItineraryRepository) {
+        this.itineraryService = itineraryService;
+        this.aiItineraryService = aiItineraryService;
+        this.aiItineraryRepository = aiItineraryRepository;
+    }
+
+    /**
+     * Orders the selected events into a route that minimizes travel time while
+     * arriving at each event by its start time.
+     *
+     * @param events Selected events (id, name, venue, startDate, latitude, longitude)
+     * @param mode Travel mode, "drive" (default) or "walk"
+     * @param dwellMin Optional minutes spent at each event (defaults to 60)
+     * @return The ordered stops with travel and arrival times
+     */
+    @PostMapping("/optimize")
+    public ResponseEntity<Map<String, Object>> optimize(
+            @RequestBody List<Map<String, Object>> events,
+            @RequestParam(defaultValue = "drive") String mode,
+            @RequestParam(required = false) Integer dwellMin) {
+
+        if (events == null || events.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(itineraryService.optimize(events, mode, dwellMin));
+    }
+
+    /**
+     * Generates an AI itinerary for the selected events and saves it for the user.
+     *
+     * @param events Selected events
+     * @param userId The authenticated user
+     * @return The saved itinerary
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<AiItinerary> generate(@RequestBody List<Map<String, Object>> events,
+                                                @AuthenticationPrincipal String userId) throws Exception {
+        if (events == null || events.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        AiItineraryService.Generation gen = aiItineraryService.generate(userId, events);
+        String content = await(gen.subscribe(chunk -> { }));
+        return ResponseEntity.ok(save(userId, gen.getHash(), content, events.size()));
+    }
+
+    /** Rethrows a failed generation's cause so the exception handler maps it rather than the wrapper. */
+    private static String await(CompletableFuture<String> result) throws Exception {
+        try {
+            return result.get(GENERATE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Same as {@link #generate} but streams the itinerary text as server-sent events while it is written.
+     * Emits "chunk" events with partial text and a final "done" event with the saved itinerary.
+     *
+     * @param events Selected events
+     * @param userId The authenticated user
+     * @return The event stream
+     */
+    @PostMapping("/generate/stream")
+    public SseEmitter generateStream(@RequestBody List<Map<String, Object>> events,
+                                     @AuthenticationPrincipal String userId) {
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("No events selected");
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(GENERATE_TIMEOUT_SECONDS));
+        AiItineraryService.Generation gen = aiItineraryService.generate(userId, events);
+        gen.subscribe(chunk -> {
+            try {
+                emitter.send(SseEmitter.event().name("chunk").data(chunk));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).whenComplete((content, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("done").data(save(userId, gen.getHash(), content, events.size())));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Lists the user's saved AI itineraries.
+     *
+     * @param userId The authenticated user
+     * @return The user's itineraries
+     */
+    @GetMapping("/ai")
+    public ResponseEntity<List<AiItinerary>> getUserItineraries(@AuthenticationPrincipal String userId) {
+        return ResponseEntity.ok(aiItineraryRepository.findByUserId(userId));
+    }
+
+    /**
+     * Fetches one of the user's AI itineraries.
+     *
+     * @param itineraryId The itinerary ID
+     * @param userId The authenticated user
+     * @return The itinerary, or 404 if it does not exist
+     */
+    @GetMapping("/ai/{itineraryId}")
+    public ResponseEntity<AiItinerary> getItinerary(@PathVariable String itineraryId,
+                                                    @AuthenticationPrincipal String userId) {
+        AiItinerary itinerary = aiItineraryRepository.findById(userId, itineraryId);
+        if (itinerary == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        return ResponseEntity.ok(itinerary);
+    }
+
+    /**
+     * Deletes one of the user's AI itineraries.
+     *
+     * @param itineraryId The itinerary ID
+     * @param userId The authenticated user
+     * @return 204 on success
+     */
+    @DeleteMapping("/ai/{itineraryId}")
+    public ResponseEntity<Void> deleteItinerary(@PathVariable String itineraryId,
+                                                @AuthenticationPrincipal String userId) {
+        aiItineraryRepository.delete(userId, itineraryId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Returns the user's existing itinerary for the same event set, so repeated requests do not add rows. */
+    private AiItinerary save(String userId, String contentHash, String content, int eventCount) {
+        AiItinerary existing = aiItineraryRepository.findByContentHash(userId, contentHash);
+        if (existing != null) return existing;
+        AiItinerary itinerary = new AiItinerary();
+        itinerary.setUserId(userId);
+        itinerary.setItineraryId(UUID.randomUUID().toString());
+        itinerary.setContentHash(contentHash);
+        itinerary.setContent(content);
+        itinerary.setEventCount(eventCount);
+        itinerary.setCreatedAt(Instant.now().toString());
+        aiItineraryRepository.save(itinerary);
+        return itinerary;
+    }
+}
@@ -0,0 +1,32 @@
+package com.localapp.controller;
+
+import com.localapp.limit.AdaptiveConcurrencyLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller exposing the state of the adaptive concurrency limit.
+ */
+@RestController
+@RequestMapping("/api/limiter")
+public class LimiterController {
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LimiterController(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * Reports the current limit, requests in flight, latency baseline and per-priority counters.
+     *
+     * @return Limiter snapshot
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLimiter() {
+        return ResponseEntity.ok(limiter.snapshot());
+    }
+}
@@ -0,0 +1,196 @@
+package com.localapp.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows observed latency instead of a fixed thread or queue size.
+ * Latency is averaged over short windows and compared with a slowly moving baseline; while
+ * the short-term average stays within {@code tolerance} times the baseline the limit grows
+ * in steps proportional to its square root, and once requests start queueing it shrinks in
+ * proportion to the latency ratio (the gradient). A window containing a dropped
+ * request (timeout or upstream overload) cuts the limit multiplicatively, as in AIMD.
+ * <p>
+ * Each {@link Priority} may use a share of the limit, so as concurrency approaches it the
+ * lower classes are rejected first and the top class keeps the remaining headroom.
+ * Acquiring is lock-free; only the end-of-request sample takes a short lock.
+ */
+public class AdaptiveConcurrencyLimiter {
+    /** A higher average moves the baseline by 1/LONG_WINDOWS of the difference per window */
+    private static final double LONG_WINDOWS = 100;
+    private static final double APP_LIMITED_WINDOWS = 20;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int windowMinSamples;
+    private final double[] shares;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Highest in-flight count since the window started; updated without a lock, so approximate */
+    private volatile int peakInFlight;
+    private volatile double limit;
+    private final LongAdder[] admitted = new LongAdder[Priority.values().length];
+    private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+
+    // Window state, guarded by this
+    private long windowStart;
+    private long windowRttSum;
+    private int windowCount;
+    private boolean windowDropped;
+    private double longRttNanos;
+    private double lastRttNanos;
+
+    /**
+     * @param initialLimit Starting limit
+     * @param minLimit Lower bound of the limit
+     * @param maxLimit Upper bound; keep it below the servlet thread count so excess requests are rejected, not queued
+     * @param tolerance How far above the baseline the average latency may rise before the limit shrinks, e.g. 2.0
+     * @param windowMillis Minimum duration of a sampling window
+     * @param windowMinSamples Minimum requests per sampling window
+     * @param shares Fraction of the limit each priority may use, indexed by {@link Priority#ordinal()}
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      long windowMillis, int windowMinSamples, double[] shares) {
+        this(initialLimit, minLimit, maxLimit, tolerance, windowMillis, windowMinSamples, shares, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, long windowMillis,
+                               int windowMinSamples, double[] shares, LongSupplier nanoClock) {
+        if (shares.length != Priority.values().length) throw new IllegalArgumentException("Expected one share per priority");
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = windowMillis * 1_000_000;
+        this.windowMinSamples = windowMinSamples;
+        this.shares = shares.clone();
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+        for (int i = 0; i < admitted.length; i++) {
+            admitted[i] = new LongAdder();
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return true if the request may proceed; it must then call one of the release methods exactly once
+     */
+    public boolean tryAcquire(Priority priority) {
+        int max = Math.max(1, (int) (limit * shares[priority.ordinal()]));
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > peakInFlight) peakInFlight = current + 1;
+                admitted[priority.ordinal()].increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request and feeds its latency to the limit.
+     *
+     * @param rttNanos Time the request held its slot
+     * @param dropped Whether it failed in a way that indicates overload (timeout, upstream rejection)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        sample(rttNanos, dropped);
+    }
+
+    /**
+     * Ends a request without using its latency, e.g. one that continues asynchronously.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        long n = 0;
+        for (LongAdder r : rejected) n += r.sum();
+        return n;
+    }
+
+    private synchronized void sample(long rttNanos, boolean dropped) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowDropped |= dropped;
+
+        long now = nanoClock.getAsLong();
+        if (windowCount < windowMinSamples || now - windowStart < windowNanos) return;
+        double shortRtt = (double) windowRttSum / windowCount;
+        boolean drop = windowDropped;
+        int peak = peakInFlight;
+        peakInFlight = inFlight.get();
+        windowStart = now;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowDropped = false;
+        lastRttNanos = shortRtt;
+
+        if (drop) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+            return;
+        }
+        boolean appLimited = peak < limit / 2;
+        if (longRttNanos == 0 || shortRtt < longRttNanos) {
+            longRttNanos = shortRtt;
+        } else if (appLimited) {
+            longRttNanos += (shortRtt - longRttNanos) / APP_LIMITED_WINDOWS;
+        } else if ((int) limit <= minLimit || shortRtt <= longRttNanos * (1 + tolerance) / 2) {
+            // Slower without queueing caused by this limit (it is at its floor, or latency is
+            // well inside the tolerance): the work itself got slower. Otherwise the baseline
+            // would follow the limit's own queueing delay and the limit would creep upwards.
+            longRttNanos += (shortRtt - longRttNanos) / LONG_WINDOWS;
+        }
+        // Too little demand to tell whether a higher limit would still be fast
+        if (appLimited) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        // Probe upwards only while latency is within tolerance, so a slowdown that fewer
+        // requests do not fix drives the limit to its floor, where the baseline can adapt
+        double next = gradient < 1.0 ? limit * gradient : limit + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + next * SMOOTHING));
+    }
+
+    /**
+     * @return Limit, in-flight count, latencies and per-priority admitted/rejected counters
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("limit", getLimit());
+        m.put("inFlight", getInFlight());
+        synchronized (this) {
+            m.put("baselineLatencyMs", Math.round(longRttNanos / 1e4) / 100.0);
+            m.put("recentLatencyMs", Math.round(lastRttNanos / 1e4) / 100.0);
+        }
+        for (Priority p : Priority.values()) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("share", shares[p.ordinal()]);
+            c.put("admitted", admitted[p.ordinal()].sum());
+            c.put("rejected", rejected[p.ordinal()].sum());
+            m.put(p.name().toLowerCase(), c);
+        }
+        return m;
+    }
+}
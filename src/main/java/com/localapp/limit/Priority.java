@@ -0,0 +1,17 @@
+package com.localapp.limit;
+
+/**
+ * Request classes for {@link AdaptiveConcurrencyLimiter}, most important first. Under
+ * overload the lower classes are rejected before the higher ones.
+ */
+public enum Priority {
+    /** Event listings, map and profile reads, normally served from cache */
+    READ,
+    /**
+     * Requests that wait on an upstream API or compute per request: artist search, AI itinerary
+     * generation, route optimization and distance matrices
+     */
+    SEARCH,
+    /** Login and registration, which cost a password hash and a DynamoDB call each */
+    LOGIN
+}
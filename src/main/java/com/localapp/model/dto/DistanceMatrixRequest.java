@@ -0,0 +1,57 @@
+package com.localapp.model.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Origins and event coordinates for a batch distance computation, as parallel arrays in degrees.
+ */
+public class DistanceMatrixRequest {
+    @NotNull
+    @Size(min = 1, max = 50)
+    private double[] originLat;
+
+    @NotNull
+    @Size(min = 1, max = 50)
+    private double[] originLon;
+
+    @NotNull
+    @Size(max = 10000)
+    private double[] eventLat;
+
+    @NotNull
+    @Size(max = 10000)
+    private double[] eventLon;
+
+    public double[] getOriginLat() {
+        return originLat;
+    }
+
+    public void setOriginLat(double[] originLat) {
+        this.originLat = originLat;
+    }
+
+    public double[] getOriginLon() {
+        return originLon;
+    }
+
+    public void setOriginLon(double[] originLon) {
+        this.originLon = originLon;
+    }
+
+    public double[] getEventLat() {
+        return eventLat;
+    }
+
+    public void setEventLat(double[] eventLat) {
+        this.eventLat = eventLat;
+    }
+
+    public double[] getEventLon() {
+        return eventLon;
+    }
+
+    public void setEventLon(double[] eventLon) {
+        this.eventLon = eventLon;
+    }
+}
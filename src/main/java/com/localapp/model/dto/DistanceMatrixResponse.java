@@ -0,0 +1,28 @@
+package com.localapp.model.dto;
+
+/**
+ * Distances in miles from each origin to each event, row-major: {@code miles[o * events + e]}.
+ */
+public class DistanceMatrixResponse {
+    private int origins;
+    private int events;
+    private double[] miles;
+
+    public DistanceMatrixResponse(int origins, int events, double[] miles) {
+        this.origins = origins;
+        this.events = events;
+        this.miles = miles;
+    }
+
+    public int getOrigins() {
+        return origins;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    public double[] getMiles() {
+        return miles;
+    }
+}
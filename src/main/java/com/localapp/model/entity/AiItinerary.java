@@ -0,0 +1,47 @@
+package com.localapp.model.entity;
+
+import lombok.Data;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * Represents an AI-generated itinerary saved for a user.
+ * The content hash identifies the selected event set the itinerary was generated from.
+ */
+@Data
+@DynamoDbBean
+public class AiItinerary {
+    private String userId;
+    private String itineraryId;
+    private String contentHash;
+    private String content;
+    private Integer eventCount;
+    private String createdAt;
+
+    /**
+     * Gets the owning user's ID.
+     * @return The user ID
+     */
+    @DynamoDbPartitionKey
+    public String getUserId() { return userId; }
+
+    /**
+     * Sets the owning user's ID.
+     * @param userId The user ID to set
+     */
+    public void setUserId(String userId) { this.userId = userId; }
+
+    /**
+     * Gets the unique identifier for the itinerary.
+     * @return The itinerary ID
+     */
+    @DynamoDbSortKey
+    public String getItineraryId() { return itineraryId; }
+
+    /**
+     * Sets the unique identifier for the itinerary.
+     * @param itineraryId The itinerary ID to set
+     */
+    public void setItineraryId(String itineraryId) { this.itineraryId = itineraryId; }
+}
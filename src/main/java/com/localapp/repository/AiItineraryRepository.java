@@ -0,0 +1,58 @@
+package com.localapp.repository;
+
+import com.localapp.model.entity.AiItinerary;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public class AiItineraryRepository {
+    private final LazyTable<AiItinerary> itineraryTable;
+
+    public AiItineraryRepository(@Lazy DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this.itineraryTable = new LazyTable<>(dynamoDbEnhancedClient, "AiItineraries", AiItinerary.class);
+    }
+
+    public AiItinerary findById(String userId, String itineraryId) {
+        return itineraryTable.get().getItem(Key.builder().partitionValue(userId).sortValue(itineraryId).build());
+    }
+
+    public List<AiItinerary> findByUserId(String userId) {
+        Key key = Key.builder().partitionValue(userId).build();
+        return itineraryTable.get().query(QueryConditional.keyEqualTo(key))
+                .items()
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    public AiItinerary findByContentHash(String userId, String contentHash) {
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(userId).build()))
+                .filterExpression(Expression.builder()
+                        .expression("contentHash = :hash")
+                        .putExpressionValue(":hash", AttributeValue.builder().s(contentHash).build())
+                        .build())
+                .build();
+        return itineraryTable.get().query(queryRequest)
+                .items()
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public void save(AiItinerary itinerary) {
+        itineraryTable.get().putItem(itinerary);
+    }
+
+    public void delete(String userId, String itineraryId) {
+        itineraryTable.get().deleteItem(Key.builder().partitionValue(userId).sortValue(itineraryId).build());
+    }
+}
@@ -0,0 +1,33 @@
+package com.localapp.repository;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+/**
+ * Table handle created on first use. Building a bean table schema introspects the entity
+ * class and resolving the client builds the AWS SDK client, so neither is done at startup.
+ */
+final class LazyTable<T> {
+    private final DynamoDbEnhancedClient client;
+    private final String tableName;
+    private final Class<T> type;
+    private volatile DynamoDbTable<T> table;
+
+    LazyTable(DynamoDbEnhancedClient client, String tableName, Class<T> type) {
+        this.client = client;
+        this.tableName = tableName;
+        this.type = type;
+    }
+
+    DynamoDbTable<T> get() {
+        DynamoDbTable<T> t = table;
+        if (t == null) {
+            synchronized (this) {
+                t = table;
+                if (t == null) table = t = client.table(tableName, TableSchema.fromBean(type));
+            }
+        }
+        return t;
+    }
+}
@@ -1,11 +1,10 @@
 package com.localapp.repository;
 
 import com.localapp.model.entity.User;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
@@ -15,14 +14,14 @@ import java.util.stream.Collectors;
 
 @Repository
 public class UserRepository {
-    private final DynamoDbTable<User> userTable;
+    private final LazyTable<User> userTable;
 
-    public UserRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
-        this.userTable = dynamoDbEnhancedClient.table("Users", TableSchema.fromBean(User.class));
+    public UserRepository(@Lazy DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this.userTable = new LazyTable<>(dynamoDbEnhancedClient, "Users", User.class);
     }
 
     public User findByUserId(String userId) {
-        return userTable.getItem(GetItemEnhancedRequest.builder().key(k -> k.partitionValue(userId)).build());
+        return userTable.get().getItem(GetItemEnhancedRequest.builder().key(k -> k.partitionValue(userId)).build());
     }
 
     public User findByUsername(String username) {
@@ -30,7 +29,7 @@ public class UserRepository {
         QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder()
                 .queryConditional(QueryConditional.keyEqualTo(key))
                 .build();
-        return userTable.index("UsernameIndex")
+        return userTable.get().index("UsernameIndex")
                 .query(queryRequest)
                 .stream()
                 .flatMap(page -> page.items().stream())
@@ -39,11 +38,11 @@ public class UserRepository {
     }
 
     public void save(User user) {
-        userTable.putItem(user);
+        userTable.get().putItem(user);
     }
 
     public List<User> findAll() {
-        return userTable.scan().items().stream().collect(Collectors.toList());
+        return userTable.get().scan().items().stream().collect(Collectors.toList());
     }
 
     public void updateProfile(String userId, String displayName, String bio) {
@@ -0,0 +1,306 @@
+package com.localapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.localapp.util.ParseUtil;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Generates AI itineraries for a set of selected events.
+ * Generated text is cached by a content hash of the canonicalized event set, identical
+ * concurrent requests share a single upstream generation, and each user draws LLM tokens
+ * from a daily budget. Cache hits and shared generations do not consume budget.
+ * A generation still streaming at its deadline is aborted and its reserved tokens refunded;
+ * at most {@code ai.generation.max-concurrent} run at once and further new ones are rejected.
+ */
+@Service
+public class AiItineraryService {
+    private static final Logger log = LoggerFactory.getLogger(AiItineraryService.class);
+    private static final String PROMPT_VERSION = "v1";
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final LlmClient llm;
+    private final ItineraryService itineraryService;
+    private final long tokensPerDay;
+    private final int maxOutputTokens;
+    private final Cache<String, String> generated = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+    private final Cache<String, Bucket> budgets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+    private final ConcurrentHashMap<String, Generation> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final ExecutorService executor;
+
+    public AiItineraryService(LlmClient llm, ItineraryService itineraryService, long tokensPerDay, int maxOutputTokens) {
+        this(llm, itineraryService, tokensPerDay, maxOutputTokens, 110, 16);
+    }
+
+    /**
+     * @param timeoutSeconds Deadline for one generation, kept below the controller's wait
+     * @param maxConcurrent Generations running at once; new ones beyond it are rejected
+     */
+    @Autowired
+    public AiItineraryService(LlmClient llm, ItineraryService itineraryService,
+                              @Value("${ai.budget.tokens-per-day:50000}") long tokensPerDay,
+                              @Value("${ai.api.max-output-tokens:2048}") int maxOutputTokens,
+                              @Value("${ai.generation.timeout-seconds:110}") long timeoutSeconds,
+                              @Value("${ai.generation.max-concurrent:16}") int maxConcurrent) {
+        this.llm = llm;
+        this.itineraryService = itineraryService;
+        this.tokensPerDay = tokensPerDay;
+        this.maxOutputTokens = maxOutputTokens;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.executor = new ThreadPoolExecutor(0, maxConcurrent, 60, TimeUnit.SECONDS, new SynchronousQueue<>());
+    }
+
+    /**
+     * Starts (or joins) generation of an itinerary for the given events.
+     *
+     * @param userId The requesting user, charged for tokens if a new generation is needed
+     * @param events Selected events
+     * @return A handle that replays partial output and completes with the full itinerary
+     * @throws TokenBudgetExceededException if the user has no budget left for a new generation
+     * @throws RejectedExecutionException if too many generations are already running
+     */
+    public Generation generate(String userId, List<Map<String, Object>> events) {
+        String hash = contentHash(events, llm.getModel());
+        String cached = generated.getIfPresent(hash);
+        if (cached != null) {
+            log.info("AI itinerary cache hit for {}", hash);
+            return Generation.completed(hash, cached);
+        }
+        Task[] launch = new Task[1];
+        Generation gen = inFlight.computeIfAbsent(hash, h -> {
+            Generation g = new Generation(h);
+            launch[0] = prepare(userId, g, events);
+            return g;
+        });
+        // Started outside computeIfAbsent so a fast failure cannot leave a stale entry behind
+        if (launch[0] != null) {
+            try {
+                executor.execute(launch[0]);
+            } catch (RejectedExecutionException e) {
+                launch[0].finish(e);
+                throw e;
+            }
+        }
+        return gen;
+    }
+
+    private Task prepare(String userId, Generation gen, List<Map<String, Object>> events) {
+        String prompt = buildPrompt(events);
+        long reserved = prompt.length() / CHARS_PER_TOKEN + maxOutputTokens;
+        Bucket bucket = budgets.get(userId, u -> newBudget());
+        if (!bucket.tryConsume(reserved)) {
+            throw new TokenBudgetExceededException("Daily AI token budget exhausted for user " + userId);
+        }
+        return new Task(gen, prompt, bucket, reserved);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Runs one generation, refunding its reservation if it fails or misses the deadline. */
+    private final class Task implements Runnable {
+        private final Generation gen;
+        private final String prompt;
+        private final Bucket bucket;
+        private final long reserved;
+
+        Task(Generation gen, String prompt, Bucket bucket, long reserved) {
+            this.gen = gen;
+            this.prompt = prompt;
+            this.bucket = bucket;
+            this.reserved = reserved;
+        }
+
+        @Override
+        public void run() {
+            String text;
+            try {
+                text = llm.stream(prompt, maxOutputTokens, timeout, gen::append);
+            } catch (Exception e) {
+                finish(e);
+                return;
+            }
+            long unused = maxOutputTokens - text.length() / CHARS_PER_TOKEN;
+            if (unused > 0) bucket.addTokens(unused);
+            generated.put(gen.getHash(), text);
+            inFlight.remove(gen.getHash(), gen);
+            gen.complete(text);
+        }
+
+        /** Fails the generation and refunds the reservation. */
+        void finish(Exception error) {
+            log.error("AI itinerary generation failed for {}: {}", gen.getHash(), error.getMessage());
+            bucket.addTokens(reserved);
+            inFlight.remove(gen.getHash(), gen);
+            gen.fail(error);
+        }
+    }
+
+    private Bucket newBudget() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(tokensPerDay).refillGreedy(tokensPerDay, Duration.ofDays(1)).build())
+                .build();
+    }
+
+    /**
+     * Hashes the event set independently of order so the same selection always maps to the same cache entry.
+     */
+    static String contentHash(List<Map<String, Object>> events, String model) {
+        List<String> keys = new ArrayList<>(events.size());
+        for (Map<String, Object> e : events) {
+            String id = ParseUtil.str(e.get("id")).trim();
+            keys.add(!id.isEmpty() ? "id:" + id
+                    : (ParseUtil.str(e.get("name")) + "|" + ParseUtil.str(e.get("startDate")) + "|" + ParseUtil.str(e.get("venue"))).trim().toLowerCase());
+        }
+        Collections.sort(keys);
+        StringBuilder canonical = new StringBuilder(PROMPT_VERSION).append('\n').append(model);
+        for (String k : keys) canonical.append('\n').append(k);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Orders the events with the route optimizer first so the model narrates a feasible plan. */
+    private String buildPrompt(List<Map<String, Object>> events) {
+        Map<String, Object> route = itineraryService.optimize(events, "drive", null);
+        StringBuilder p = new StringBuilder()
+                .append("Write a friendly, concise itinerary for the following events, in this order. ")
+                .append("Mention travel time between stops and suggest what to do in any gaps.\n\n");
+        appendStops(p, route.get("stops"));
+        appendStops(p, route.get("unlocated"));
+        return p.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendStops(StringBuilder p, Object stops) {
+        for (Map<String, Object> s : (List<Map<String, Object>>) stops) {
+            p.append("- ").append(ParseUtil.str(s.get("name")))
+                    .append(" at ").append(ParseUtil.str(s.get("venue")))
+                    .append(", starts ").append(ParseUtil.str(s.get("startDate")));
+            if (s.get("travelTimeMin") != null) p.append(", ").append(s.get("travelTimeMin")).append(" min from previous stop");
+            p.append('\n');
+        }
+    }
+
+    /**
+     * A single in-progress or finished generation that any number of requests can follow.
+     * Subscribers first receive everything produced so far, then each new fragment.
+     * Listeners and completion callbacks run outside the generation's lock.
+     */
+    public static final class Generation {
+        private final String hash;
+        private final StringBuilder text = new StringBuilder();
+        private final List<Subscriber> listeners = new ArrayList<>();
+        private final CompletableFuture<String> done = new CompletableFuture<>();
+        private boolean finished;
+
+        Generation(String hash) {
+            this.hash = hash;
+        }
+
+        static Generation completed(String hash, String text) {
+            Generation g = new Generation(hash);
+            g.text.append(text);
+            g.finished = true;
+            g.done.complete(text);
+            return g;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * @param onChunk Receives buffered output immediately and later fragments as they arrive
+         * @return Future completing with the full text
+         */
+        public CompletableFuture<String> subscribe(Consumer<String> onChunk) {
+            Subscriber s = new Subscriber(onChunk);
+            // Holding the subscriber's lock makes fragments appended meanwhile wait for the replay
+            synchronized (s) {
+                String replay;
+                synchronized (this) {
+                    replay = text.toString();
+                    if (!finished) listeners.add(s);
+                }
+                if (!replay.isEmpty() && !s.deliver(replay)) remove(s);
+            }
+            return done;
+        }
+
+        void append(String chunk) {
+            List<Subscriber> targets;
+            synchronized (this) {
+                text.append(chunk);
+                targets = new ArrayList<>(listeners);
+            }
+            for (Subscriber s : targets) {
+                if (!s.deliver(chunk)) remove(s);
+            }
+        }
+
+        void complete(String full) {
+            synchronized (this) {
+                finished = true;
+                listeners.clear();
+            }
+            done.complete(full);
+        }
+
+        void fail(Throwable t) {
+            synchronized (this) {
+                finished = true;
+                listeners.clear();
+            }
+            done.completeExceptionally(t);
+        }
+
+        private synchronized void remove(Subscriber s) {
+            listeners.remove(s);
+        }
+
+        private static final class Subscriber {
+            private final Consumer<String> onChunk;
+
+            Subscriber(Consumer<String> onChunk) {
+                this.onChunk = onChunk;
+            }
+
+            /** @return false if the listener failed and should be dropped */
+            synchronized boolean deliver(String chunk) {
+                try {
+                    onChunk.accept(chunk);
+                    return true;
+                } catch (Exception e) {
+                    return false;
+                }
+            }
+        }
+    }
+}
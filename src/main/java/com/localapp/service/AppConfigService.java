@@ -1,5 +1,10 @@
 package com.localapp.service;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.appconfig.AppConfigClient;
 import software.amazon.awssdk.services.appconfig.model.GetConfigurationRequest;
 import software.amazon.awssdk.services.appconfig.model.GetConfigurationResponse;
@@ -7,6 +12,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
+
+/**
+ * Reads API keys from AWS AppConfig. The SDK client is built on the first lookup and
+ * reused, so startup does not pay for it and lookups do not rebuild it. When
+ * {@code aws.appconfig.file} is set, keys are read from that JSON file instead (local
+ * and load-test runs).
+ */
 @Service
 public class AppConfigService {
     private final ObjectMapper mapper = new ObjectMapper();
@@ -14,6 +27,19 @@ public class AppConfigService {
     private final String environment = "Production";
     private final String configProfile = "KeysProfile";
     private final String clientId = "client-id-1";
+    private final AwsCredentialsProvider credentials;
+    private final String region;
+    private final String file;
+    private volatile AppConfigClient client;
+    private volatile JsonNode fileConfig;
+
+    public AppConfigService(@Lazy AwsCredentialsProvider credentials,
+                            @Value("${aws.appconfig.region:us-east-2}") String region,
+                            @Value("${aws.appconfig.file:}") String file) {
+        this.credentials = credentials;
+        this.region = region;
+        this.file = file;
+    }
 
     public String getMapboxApiKey() {
         return getConfigValue("MAPBOX_KEY");
@@ -33,14 +59,18 @@ public class AppConfigService {
 
 
     private String getConfigValue(String key) {
-        try (AppConfigClient client = AppConfigClient.create()) {
+        try {
+            if (!file.isEmpty()) {
+                if (fileConfig == null) fileConfig = mapper.readTree(new File(file));
+                return fileConfig.get(key).asText();
+            }
             GetConfigurationRequest request = GetConfigurationRequest.builder()
                     .application(application)
                     .environment(environment)
                     .configuration(configProfile)
                     .clientId(clientId)
                     .build();
-            GetConfigurationResponse response = client.getConfiguration(request);
+            GetConfigurationResponse response = client().getConfiguration(request);
             String json = response.content().asUtf8String();
             JsonNode node = mapper.readTree(json);
             return node.get(key).asText();
@@ -48,4 +78,25 @@ public class AppConfigService {
             throw new RuntimeException("Failed to fetch " + key, e);
         }
     }
+
+    private AppConfigClient client() {
+        AppConfigClient c = client;
+        if (c == null) {
+            synchronized (this) {
+                c = client;
+                if (c == null) {
+                    client = c = AppConfigClient.builder()
+                            .region(Region.of(region))
+                            .credentialsProvider(credentials)
+                            .build();
+                }
+            }
+        }
+        return c;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (client != null) client.close();
+    }
 }
\ No newline at end of file
@@ -1,33 +1,27 @@
 package com.localapp.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.localapp.model.dto.DistanceMatrixRequest;
+import com.localapp.model.dto.DistanceMatrixResponse;
+import com.localapp.service.store.CityEventStore;
+import com.localapp.util.DistanceMatrix;
 import com.localapp.util.DistanceUtil;
 import com.localapp.util.EventFilterUtil;
 import com.localapp.util.ParseUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class EventService {
-    private static final Logger log = LoggerFactory.getLogger(EventService.class);
-    private static final String API_BASE = "https://www.eventbriteapi.com/v3";
-    private final AppConfigService config;
-    private final RestTemplate http;
-    private final ObjectMapper json = new ObjectMapper();
+    private final CityEventStore store;
 
-    public EventService(AppConfigService config, RestTemplate http) {
-        this.config = config;
-        this.http = http;
+    public EventService(CityEventStore store) {
+        this.store = store;
     }
 
     public List<Map<String, Object>> fetchEvents(String city, String date) {
@@ -35,34 +29,41 @@ public class EventService {
     }
 
     public List<Map<String, Object>> fetchEvents(String city, String date, String sort, String artist) {
-        String token = config.getEventbriteToken();
-        if (token == null || token.isEmpty()) return List.of();
-        return callAPI(token, city, date + "T00:00:00Z", date + "T23:59:59Z", artist);
+        return store.day(city, artist, parseDate(date));
+    }
+
+    public Map<String, Object> fetchViewportClusters(String city, String date, double south, double west,
+                                                     double north, double east, int zoom) {
+        return store.viewport(city, parseDate(date), south, west, north, east, zoom);
     }
 
     public List<Map<String, Object>> searchFutureEventsByArtist(String artist) {
-        return fetchEvents("", Instant.now().atZone(ZoneOffset.UTC).toLocalDate().toString(), null, artist);
+        return store.day("", artist, Instant.now().atZone(ZoneOffset.UTC).toLocalDate());
     }
 
     public List<Map<String, Object>> fetchTonightEvents(String city, Double lat, Double lon, String mood) {
-        String token = config.getEventbriteToken();
-        if (token == null || token.isEmpty()) return List.of();
-
         Instant now = Instant.now();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
-        List<Map<String, Object>> events = callAPI(token, city, fmt.format(now), fmt.format(now.plusSeconds(8 * 3600)), null);
+        List<Map<String, Object>> events = store.window(city, null, now, now.plusSeconds(8 * 3600));
 
         // Add distance
         if (lat != null && lon != null) {
-            events.forEach(e -> {
-                Double eLat = ParseUtil.dbl(e.get("latitude")), eLon = ParseUtil.dbl(e.get("longitude"));
-                if (eLat != null && eLon != null) {
-                    double d = DistanceUtil.haversine(lat, lon, eLat, eLon);
-                    e.put("distanceMiles", Math.round(d * 10.0) / 10.0);
-                    e.put("driveTimeMin", DistanceUtil.estimateDrive(d));
-                    e.put("walkTimeMin", DistanceUtil.estimateWalk(d));
-                }
-            });
+            List<Map<String, Object>> located = new ArrayList<>(events.size());
+            for (Map<String, Object> e : events) {
+                if (ParseUtil.dbl(e.get("latitude")) != null && ParseUtil.dbl(e.get("longitude")) != null) located.add(e);
+            }
+            double[] eLat = new double[located.size()], eLon = new double[located.size()];
+            for (int i = 0; i < eLat.length; i++) {
+                eLat[i] = ParseUtil.dbl(located.get(i).get("latitude"));
+                eLon[i] = ParseUtil.dbl(located.get(i).get("longitude"));
+            }
+            double[] miles = DistanceMatrix.compute(new double[]{lat}, new double[]{lon}, eLat, eLon);
+            for (int i = 0; i < miles.length; i++) {
+                Map<String, Object> e = located.get(i);
+                double d = miles[i];
+                e.put("distanceMiles", Math.round(d * 10.0) / 10.0);
+                e.put("driveTimeMin", DistanceUtil.estimateDrive(d));
+                e.put("walkTimeMin", DistanceUtil.estimateWalk(d));
+            }
         }
 
         // Filter distance & mood
@@ -76,60 +77,21 @@ public class EventService {
         return events;
     }
 
-    private List<Map<String, Object>> callAPI(String token, String city, String start, String end, String query) {
+    private static LocalDate parseDate(String date) {
         try {
-            StringBuilder url = new StringBuilder(API_BASE + "/events/search/?expand=venue,logo");
-            if (city != null && !city.isEmpty())
-                url.append("&location.address=").append(java.net.URLEncoder.encode(city, java.nio.charset.StandardCharsets.UTF_8));
-            url.append("&start_date.range_start=").append(java.net.URLEncoder.encode(start, java.nio.charset.StandardCharsets.UTF_8));
-            url.append("&start_date.range_end=").append(java.net.URLEncoder.encode(end, java.nio.charset.StandardCharsets.UTF_8));
-            if (query != null && !query.trim().isEmpty())
-                url.append("&q=").append(java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8));
-            url.append("&page_size=200");
-
-            JsonNode root = json.readTree(callRaw(token, url.toString()));
-            JsonNode events = root.path("events");
-
-            Map<String, Map<String, Object>> unique = new HashMap<>();
-            if (events.isArray()) {
-                for (JsonNode ev : events) {
-                    Map<String, Object> parsed = parse(ev);
-                    String key = ParseUtil.str(parsed.get("name")) + "|" + ParseUtil.str(parsed.get("startDate")) + "|" + ParseUtil.str(parsed.get("venue"));
-                    unique.putIfAbsent(key.toLowerCase(), parsed);
-                }
-            }
-            return new ArrayList<>(unique.values());
-        } catch (Exception e) {
-            log.error("API call failed: {}", e.getMessage());
-            return List.of();
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be in YYYY-MM-DD format: " + date);
         }
     }
 
-    private String callRaw(String token, String url) throws Exception {
-        HttpHeaders h = new HttpHeaders();
-        h.setBearerAuth(token);
-        h.setAccept(List.of(MediaType.APPLICATION_JSON));
-        return http.exchange(url, HttpMethod.GET, new HttpEntity<>(h), String.class).getBody();
-    }
-
-    private Map<String, Object> parse(JsonNode ev) {
-        Map<String, Object> m = new HashMap<>();
-        m.put("id", ev.path("id").asText(null));
-        m.put("name", ev.path("name").path("text").asText(ev.path("name").asText(null)));
-        m.put("url", ev.path("url").asText(null));
-        m.put("startDate", ev.path("start").path("utc").asText(ev.path("start").path("local").asText(null)));
-        m.put("image", ev.path("logo").path("url").asText(null));
-
-        JsonNode v = ev.path("venue");
-        if (!v.isMissingNode()) {
-            m.put("venue", v.path("name").asText(null));
-            JsonNode a = v.path("address");
-            if (!a.isMissingNode()) {
-                m.put("city", a.path("city").asText(null));
-                m.put("latitude", ParseUtil.dbl(a.path("latitude").asText(null)));
-                m.put("longitude", ParseUtil.dbl(a.path("longitude").asText(null)));
-            }
+    public DistanceMatrixResponse computeDistances(DistanceMatrixRequest request) {
+        if (request.getOriginLat().length != request.getOriginLon().length
+                || request.getEventLat().length != request.getEventLon().length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have equal length");
         }
-        return m;
+        double[] miles = DistanceMatrix.compute(request.getOriginLat(), request.getOriginLon(),
+                request.getEventLat(), request.getEventLon());
+        return new DistanceMatrixResponse(request.getOriginLat().length, request.getEventLat().length, miles);
     }
 }
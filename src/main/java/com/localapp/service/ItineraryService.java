@@ -0,0 +1,76 @@
+package com.localapp.service;
+
+import com.localapp.util.ParseUtil;
+import com.localapp.util.RouteOptimizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Builds itineraries from a user's selected events.
+ * Events with coordinates are ordered by {@link RouteOptimizer}; events without
+ * coordinates cannot be routed and are returned separately in start-time order.
+ */
+@Service
+public class ItineraryService {
+    private static final Logger log = LoggerFactory.getLogger(ItineraryService.class);
+    private static final int DEFAULT_DWELL_MIN = 60;
+    private static final long OPTIMIZE_BUDGET_MS = 50;
+
+    public Map<String, Object> optimize(List<Map<String, Object>> events, String mode, Integer dwellMin) {
+        RouteOptimizer.Mode travelMode = RouteOptimizer.Mode.from(mode);
+        int dwell = dwellMin != null && dwellMin >= 0 ? dwellMin : DEFAULT_DWELL_MIN;
+
+        List<Map<String, Object>> located = new ArrayList<>();
+        List<Map<String, Object>> unlocated = new ArrayList<>();
+        for (Map<String, Object> e : events) {
+            if (ParseUtil.dbl(e.get("latitude")) != null && ParseUtil.dbl(e.get("longitude")) != null) located.add(e);
+            else unlocated.add(e);
+        }
+        unlocated.sort(Comparator.comparing(e -> ParseUtil.parseTime(ParseUtil.str(e.get("startDate")))));
+
+        int n = located.size();
+        double[] lat = new double[n], lon = new double[n];
+        long[] start = new long[n];
+        long base = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> e = located.get(i);
+            lat[i] = ParseUtil.dbl(e.get("latitude"));
+            lon[i] = ParseUtil.dbl(e.get("longitude"));
+            Instant t = ParseUtil.parseTime(ParseUtil.str(e.get("startDate")));
+            start[i] = t.equals(Instant.EPOCH) ? Long.MIN_VALUE : t.getEpochSecond();
+            if (start[i] != Long.MIN_VALUE) base = Math.min(base, start[i]);
+        }
+        int[] window = new int[n];
+        for (int i = 0; i < n; i++) {
+            window[i] = start[i] == Long.MIN_VALUE ? RouteOptimizer.NO_WINDOW : (int) ((start[i] - base) / 60);
+        }
+
+        long t0 = System.nanoTime();
+        RouteOptimizer.Result route = RouteOptimizer.optimize(lat, lon, window, dwell, travelMode, OPTIMIZE_BUDGET_MS);
+        log.info("Optimized itinerary of {} stops in {} ms", n, (System.nanoTime() - t0) / 1_000_000);
+
+        List<Map<String, Object>> stops = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            Map<String, Object> stop = new HashMap<>(located.get(route.order[k]));
+            stop.put("order", k + 1);
+            stop.put("travelTimeMin", route.travelMin[k]);
+            stop.put("distanceMiles", Math.round(route.legMiles[k] * 10.0) / 10.0);
+            if (base != Long.MAX_VALUE) {
+                stop.put("arrivalTime", Instant.ofEpochSecond(base + route.arrivalMin[k] * 60L).toString());
+            }
+            stops.add(stop);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("mode", travelMode.name().toLowerCase());
+        result.put("stops", stops);
+        result.put("unlocated", unlocated);
+        result.put("totalTravelMin", route.totalTravelMin);
+        result.put("totalLateMin", route.totalLateMin);
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package com.localapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Streaming client for the configured LLM provider ({@code ai.api.*}).
+ * Supports Gemini ({@code streamGenerateContent}) and OpenAI-compatible chat completions,
+ * both read as server-sent events so partial output can be forwarded as it arrives.
+ * Uses its own HTTP client with connect and response-start timeouts; a stream still
+ * running at the caller's deadline is aborted by closing the response body.
+ */
+@Service
+public class LlmClient {
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "llm-stream-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final RestTemplate http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String type;
+    private final String url;
+    private final String model;
+    private final Supplier<String> apiKey;
+
+    @Autowired
+    public LlmClient(AppConfigService config,
+                     @Value("${ai.api.type:gemini}") String type,
+                     @Value("${ai.api.url}") String url,
+                     @Value("${ai.api.model}") String model,
+                     @Value("${ai.api.connect-timeout-ms:5000}") long connectTimeoutMillis,
+                     @Value("${ai.api.response-timeout-ms:30000}") long responseTimeoutMillis) {
+        this(restTemplate(connectTimeoutMillis, responseTimeoutMillis), type, url, model,
+                "openai".equalsIgnoreCase(type) ? config::getOpenAIApiKey : config::getGeminiApiKey);
+    }
+
+    LlmClient(RestTemplate http, String type, String url, String model, Supplier<String> apiKey) {
+        this.http = http;
+        this.type = type;
+        this.url = url;
+        this.model = model;
+        this.apiKey = apiKey;
+    }
+
+    /**
+     * @param connectTimeoutMillis Limit for establishing the connection
+     * @param responseTimeoutMillis Limit for the response to start; the stream itself is bounded by the caller
+     */
+    static RestTemplate restTemplate(long connectTimeoutMillis, long responseTimeoutMillis) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(Duration.ofMillis(responseTimeoutMillis));
+        return new RestTemplate(factory);
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Sends the prompt and forwards each text fragment to {@code onChunk} as it streams in.
+     *
+     * @param prompt The full prompt text
+     * @param maxOutputTokens Upper bound on generated tokens
+     * @param timeout Deadline for the whole call
+     * @param onChunk Receives partial output in order
+     * @return The complete generated text
+     * @throws TimeoutException if the stream was still running at the deadline
+     */
+    public String stream(String prompt, int maxOutputTokens, Duration timeout, Consumer<String> onChunk) throws TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        AtomicBoolean expired = new AtomicBoolean();
+        boolean openai = "openai".equalsIgnoreCase(type);
+        String body = openai ? openAiBody(prompt, maxOutputTokens) : geminiBody(prompt, maxOutputTokens);
+        String target = openai ? url : url.replace(":generateContent", ":streamGenerateContent") + (url.contains("?") ? "&" : "?") + "alt=sse";
+        String key = apiKey.get();
+
+        try {
+            return read(target, openai, key, body, deadline, expired, onChunk);
+        } catch (RuntimeException e) {
+            if (expired.get()) throw new TimeoutException("LLM stream exceeded " + timeout.toMillis() + " ms");
+            throw e;
+        }
+    }
+
+    private String read(String target, boolean openai, String key, String body, long deadline, AtomicBoolean expired,
+                        Consumer<String> onChunk) {
+        return http.execute(target, HttpMethod.POST, request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+            if (openai) request.getHeaders().setBearerAuth(key);
+            else request.getHeaders().set("x-goog-api-key", key);
+            request.getBody().write(body.getBytes(StandardCharsets.UTF_8));
+        }, response -> {
+            InputStream in = response.getBody();
+            // Closing the body from another thread is what unblocks a read on a stalled stream
+            ScheduledFuture<?> abort = DEADLINES.schedule(() -> {
+                expired.set(true);
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                    // the reader sees the stream closed either way
+                }
+            }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            try {
+                String text = readEvents(in, openai, onChunk);
+                // A closed body may read as end of stream rather than fail
+                if (expired.get()) throw new IOException("Stream closed at deadline");
+                return text;
+            } finally {
+                abort.cancel(false);
+            }
+        });
+    }
+
+    private String readEvents(InputStream in, boolean openai, Consumer<String> onChunk) throws IOException {
+        StringBuilder text = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data:")) continue;
+            String data = line.substring(5).trim();
+            if (data.isEmpty() || data.equals("[DONE]")) continue;
+            JsonNode node = json.readTree(data);
+            String chunk = openai
+                    ? node.path("choices").path(0).path("delta").path("content").asText("")
+                    : node.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText("");
+            if (!chunk.isEmpty()) {
+                text.append(chunk);
+                onChunk.accept(chunk);
+            }
+        }
+        return text.toString();
+    }
+
+    private String geminiBody(String prompt, int maxOutputTokens) {
+        ObjectNode root = json.createObjectNode();
+        root.putArray("contents").addObject().putArray("parts").addObject().put("text", prompt);
+        root.putObject("generationConfig").put("maxOutputTokens", maxOutputTokens);
+        return root.toString();
+    }
+
+    private String openAiBody(String prompt, int maxOutputTokens) {
+        ObjectNode root = json.createObjectNode();
+        root.put("model", model);
+        root.put("stream", true);
+        root.put("max_tokens", maxOutputTokens);
+        root.putArray("messages").addObject().put("role", "user").put("content", prompt);
+        return root.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package com.localapp.service;
+
+/**
+ * Thrown when a user has used up their AI token budget for the current period.
+ */
+public class TokenBudgetExceededException extends RuntimeException {
+    public TokenBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package com.localapp.service.source;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.cache.TwoLevelEventCache;
+import com.localapp.util.EventDeduplicator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scatter-gather over all registered {@link EventSource}s.
+ * Each source is queried in parallel with its own deadline; a source that misses its
+ * deadline or fails is left out of the response instead of delaying it. Results are
+ * cached per source and query (near cache plus optional shared tier, see
+ * {@link EventCacheFactory}), so a slow source that finishes late still warms the
+ * cache for the next request. In incremental refresh mode results are instead kept and
+ * updated from per-source deltas (see {@link IncrementalEventCache}). The merge stage tags events with their source and
+ * removes duplicates across providers.
+ * <p>
+ * Fetches run on a bounded pool; when its threads and queue are full a search is
+ * rejected with {@link RejectedExecutionException}, which is answered with 503.
+ */
+@Service
+public class EventAggregator {
+    private static final Logger log = LoggerFactory.getLogger(EventAggregator.class);
+
+    private final List<SourceHandle> sources = new ArrayList<>();
+    private final ThreadPoolExecutor executor;
+    private final EventDeduplicator deduplicator;
+
+    public EventAggregator(List<EventSource> sources, EventCacheFactory caches, EventDeduplicator deduplicator) {
+        this(sources, caches, deduplicator, "full", 0, 0);
+    }
+
+    public EventAggregator(List<EventSource> sources, EventCacheFactory caches, EventDeduplicator deduplicator,
+                           String refreshMode, long refreshIntervalSeconds, int fullResyncEvery) {
+        this(sources, caches, deduplicator, refreshMode, refreshIntervalSeconds, fullResyncEvery, 64, 256);
+    }
+
+    /**
+     * @param refreshMode "full" reloads a result when its cache entry expires; "incremental"
+     *                    keeps results and applies changes since the last sync (see {@link IncrementalEventCache})
+     * @param refreshIntervalSeconds Incremental mode: age after which a result is refreshed in the background
+     * @param fullResyncEvery Incremental mode: every how many refreshes a complete result is fetched
+     * @param fetchThreads Source fetches running at once
+     * @param fetchQueue Fetches waiting for a thread before new ones are rejected
+     */
+    @Autowired
+    public EventAggregator(List<EventSource> sources, EventCacheFactory caches, EventDeduplicator deduplicator,
+                           @Value("${events.refresh.mode:full}") String refreshMode,
+                           @Value("${events.refresh.interval-seconds:120}") long refreshIntervalSeconds,
+                           @Value("${events.refresh.full-resync-every:12}") int fullResyncEvery,
+                           @Value("${events.sources.fetch-threads:64}") int fetchThreads,
+                           @Value("${events.sources.fetch-queue:256}") int fetchQueue) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(fetchThreads, fetchThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fetchQueue), r -> {
+                    Thread t = new Thread(r, "event-source-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        boolean incremental = "incremental".equalsIgnoreCase(refreshMode);
+        for (EventSource s : sources) {
+            SourceHandle h = new SourceHandle(s, caches.create(s.getName()));
+            if (incremental) {
+                h.incremental = new IncrementalEventCache(s, h.metrics, Duration.ofSeconds(refreshIntervalSeconds),
+                        fullResyncEvery, executor);
+            }
+            this.sources.add(h);
+        }
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Merged events of one search, and whether every source answered.
+     *
+     * @param complete False if a source failed or missed its deadline; its events are missing
+     *                 and the result should not be kept longer than a request
+     */
+    public record Result(List<Map<String, Object>> events, boolean complete) {
+    }
+
+    /**
+     * Queries every source and merges what arrives before the deadlines.
+     *
+     * @param query The search
+     * @return Deduplicated events; each map is a fresh copy the caller may modify
+     */
+    public List<Map<String, Object>> fetch(EventQuery query) {
+        return fetchAll(List.of(query)).get(0).events();
+    }
+
+    /**
+     * Runs several searches at once, e.g. the days of a multi-day window, so they take as
+     * long as the slowest one rather than their sum.
+     *
+     * @param queries The searches
+     * @return One result per query, in the same order
+     */
+    public List<Result> fetchAll(List<EventQuery> queries) {
+        List<CompletableFuture<List<Map<String, Object>>>> pending = new ArrayList<>(queries.size() * sources.size());
+        for (EventQuery query : queries) {
+            for (SourceHandle h : sources) pending.add(h.fetchAsync(query, executor));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        List<Result> out = new ArrayList<>(queries.size());
+        Iterator<CompletableFuture<List<Map<String, Object>>>> it = pending.iterator();
+        for (int q = 0; q < queries.size(); q++) {
+            List<List<Map<String, Object>>> results = new ArrayList<>(sources.size());
+            boolean complete = true;
+            for (int i = 0; i < sources.size(); i++) {
+                List<Map<String, Object>> events = it.next().join();
+                if (events != null) results.add(events);
+                else complete = false;
+            }
+            out.add(new Result(merge(results), complete));
+        }
+        return out;
+    }
+
+    /**
+     * @return Metrics for each source, keyed by source name
+     */
+    public Map<String, SourceMetrics> getMetrics() {
+        Map<String, SourceMetrics> m = new LinkedHashMap<>();
+        for (SourceHandle h : sources) m.put(h.source.getName(), h.metrics);
+        return m;
+    }
+
+    /**
+     * @return Aggregator counters for each source keyed by source name, with the source's
+     *         own counters (see {@link EventSource#getUpstreamMetrics()}) under "upstream"
+     */
+    public Map<String, Map<String, Object>> getMetricsSnapshot() {
+        Map<String, Map<String, Object>> m = new LinkedHashMap<>();
+        for (SourceHandle h : sources) {
+            Map<String, Object> snapshot = h.metrics.snapshot();
+            Map<String, Object> upstream = h.source.getUpstreamMetrics();
+            if (!upstream.isEmpty()) snapshot.put("upstream", upstream);
+            m.put(h.source.getName(), snapshot);
+        }
+        return m;
+    }
+
+    private List<Map<String, Object>> merge(List<List<Map<String, Object>>> results) {
+        int total = 0;
+        for (List<Map<String, Object>> events : results) total += events.size();
+        List<Map<String, Object>> merged = new ArrayList<>(total);
+        for (List<Map<String, Object>> events : results) {
+            for (Map<String, Object> e : events) merged.add(new HashMap<>(e));
+        }
+        return deduplicator.dedupe(merged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class SourceHandle {
+        final EventSource source;
+        final SourceMetrics metrics = new SourceMetrics();
+        final TwoLevelEventCache cache;
+        /** Set in incremental refresh mode, replacing {@link #cache} */
+        IncrementalEventCache incremental;
+
+        SourceHandle(EventSource source, TwoLevelEventCache cache) {
+            this.source = source;
+            this.cache = cache;
+        }
+
+        /**
+         * @return Events from the cache or the source, or null if the source failed or missed its deadline
+         */
+        CompletableFuture<List<Map<String, Object>>> fetchAsync(EventQuery query, Executor executor) {
+            metrics.request();
+            String key = cacheKey(query);
+            List<Map<String, Object>> cached = incremental != null ? incremental.getIfPresent(query) : cache.getIfPresent(key);
+            if (cached != null) {
+                metrics.cacheHit();
+                return CompletableFuture.completedFuture(cached);
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(source.getTimeoutMillis());
+            return CompletableFuture.supplyAsync(() -> load(key, query, deadline), executor)
+                    .orTimeout(source.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        metrics.timeout();
+                        log.warn("Event source {} missed its {} ms deadline", source.getName(), source.getTimeoutMillis());
+                        return null;
+                    });
+        }
+
+        private List<Map<String, Object>> load(String key, EventQuery query, long deadlineNanos) {
+            boolean[] fetched = {false};
+            try {
+                if (incremental != null) return incremental.load(query);
+                // Waiting on another node's load may use half the time left; the rest is for loading here
+                long waitMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()) / 2);
+                List<Map<String, Object>> result = cache.get(key, () -> {
+                    fetched[0] = true;
+                    long t0 = System.nanoTime();
+                    List<Map<String, Object>> events = source.fetch(query);
+                    for (Map<String, Object> e : events) e.put("source", source.getName());
+                    metrics.upstream(System.nanoTime() - t0, events.size());
+                    return events;
+                }, waitMillis);
+                // Served by a concurrent request on this node or by another node through the shared tier
+                if (!fetched[0]) metrics.cacheHit();
+                return result;
+            } catch (Exception e) {
+                metrics.error();
+                log.error("Event source {} failed: {}", source.getName(), e.getMessage());
+                return null;
+            }
+        }
+
+        private static String cacheKey(EventQuery q) {
+            return q.city() + "|" + q.start() + "|" + q.end() + "|" + (q.query() != null ? q.query() : "");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.localapp.service.source;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of an incremental fetch from an {@link EventSource}.
+ *
+ * @param changed Inserted or updated events in the common map format
+ * @param removedIds Ids of events cancelled or deleted upstream
+ * @param complete True if {@code changed} is the full current result, so events missing from it were removed
+ * @param bytes Response bytes read from upstream, or -1 if unknown
+ */
+public record EventDelta(List<Map<String, Object>> changed, Set<String> removedIds, boolean complete, long bytes) {
+
+    /**
+     * A full result; the cache compares per-event content hashes to find what changed.
+     */
+    public static EventDelta snapshot(List<Map<String, Object>> events, long bytes) {
+        return new EventDelta(events, Set.of(), true, bytes);
+    }
+}
@@ -0,0 +1,13 @@
+package com.localapp.service.source;
+
+/**
+ * Provider-neutral description of an event search.
+ * Used as the cache key for per-source result caches, so it must stay a value type.
+ *
+ * @param city City to search in, or empty for any location
+ * @param start Range start (UTC, yyyy-MM-dd'T'HH:mm:ss'Z')
+ * @param end Range end (UTC, yyyy-MM-dd'T'HH:mm:ss'Z')
+ * @param query Optional free-text query such as an artist name
+ */
+public record EventQuery(String city, String start, String end, String query) {
+}
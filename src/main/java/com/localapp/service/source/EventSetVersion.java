@@ -0,0 +1,154 @@
+package com.localapp.service.source;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable snapshot of one cached result, indexed by event id with a content hash per event.
+ * {@link #apply} produces the next version from a delta: unchanged events are carried over
+ * by reference, so a refresh costs work proportional to what changed plus a pointer copy
+ * of the index, not a re-parse of the whole set. Readers holding an older version are
+ * unaffected. Events without an id are keyed by content hash, so an edit to one cannot be
+ * matched to its previous entry; a set holding any is only refreshed from complete results.
+ */
+public final class EventSetVersion {
+    private static final EventSetVersion EMPTY = new EventSetVersion(0, null, Map.of(), Map.of(), List.of(), 0, 0, 0, 0);
+
+    private final long version;
+    private final Instant syncedAt;
+    private final Map<String, Map<String, Object>> byId;
+    private final Map<String, Long> hashes;
+    private final List<Map<String, Object>> events;
+    private final int withoutId;
+    private final int inserted, updated, removed;
+
+    private EventSetVersion(long version, Instant syncedAt, Map<String, Map<String, Object>> byId,
+                            Map<String, Long> hashes, List<Map<String, Object>> events, int withoutId,
+                            int inserted, int updated, int removed) {
+        this.version = version;
+        this.syncedAt = syncedAt;
+        this.byId = byId;
+        this.hashes = hashes;
+        this.events = events;
+        this.withoutId = withoutId;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.removed = removed;
+    }
+
+    /**
+     * @return The version before the first sync
+     */
+    public static EventSetVersion empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param delta Changes from the source
+     * @param syncedAt When the fetch that produced the delta started
+     * @return The next version, or this one with a new sync time if nothing changed
+     */
+    public EventSetVersion apply(EventDelta delta, Instant syncedAt) {
+        Map<String, Map<String, Object>> ids = new LinkedHashMap<>(byId);
+        Map<String, Long> h = new HashMap<>(hashes);
+        Set<String> seen = delta.complete() ? new HashSet<>() : null;
+        int ins = 0, upd = 0, rem = 0;
+
+        for (Map<String, Object> e : delta.changed()) {
+            long hash = contentHash(e);
+            Object id = e.get("id");
+            String key = id != null ? id.toString() : "#" + Long.toHexString(hash);
+            if (seen != null) seen.add(key);
+            Long old = h.put(key, hash);
+            if (old == null) ins++;
+            else if (old != hash) upd++;
+            else continue;
+            ids.put(key, Collections.unmodifiableMap(new HashMap<>(e)));
+        }
+        for (String key : delta.removedIds()) {
+            if (ids.remove(key) != null) {
+                h.remove(key);
+                rem++;
+            }
+        }
+        if (seen != null) {
+            for (Iterator<String> it = ids.keySet().iterator(); it.hasNext(); ) {
+                String key = it.next();
+                if (!seen.contains(key)) {
+                    it.remove();
+                    h.remove(key);
+                    rem++;
+                }
+            }
+        }
+        if (ins + upd + rem == 0) {
+            return new EventSetVersion(version, syncedAt, byId, hashes, events, withoutId, 0, 0, 0);
+        }
+        int noId = 0;
+        for (Map<String, Object> e : ids.values()) {
+            if (e.get("id") == null) noId++;
+        }
+        return new EventSetVersion(version + 1, syncedAt, Collections.unmodifiableMap(ids),
+                Collections.unmodifiableMap(h), List.copyOf(ids.values()), noId, ins, upd, rem);
+    }
+
+    /**
+     * Order-independent 64-bit hash of all fields of an event.
+     */
+    public static long contentHash(Map<String, Object> event) {
+        long sum = 0;
+        for (Map.Entry<String, Object> f : event.entrySet()) {
+            sum += mix(fnv(f.getKey()) * 31 + fnv(String.valueOf(f.getValue())));
+        }
+        return mix(sum + event.size());
+    }
+
+    private static long fnv(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * @return Events in first-seen order; the list and maps are read-only
+     */
+    public List<Map<String, Object>> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Whether any event is keyed by content hash; a changed-since delta would leave its old copy behind
+     */
+    public boolean hasEventsWithoutId() {
+        return withoutId > 0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+}
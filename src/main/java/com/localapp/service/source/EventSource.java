@@ -0,0 +1,56 @@
+package com.localapp.service.source;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A provider of events (Eventbrite, Yelp, Google Places, ...).
+ * Implementations return events in the common map format used by the API
+ * (id, name, url, startDate, image, venue, city, latitude, longitude) and
+ * are fanned out in parallel by {@link EventAggregator}.
+ */
+public interface EventSource {
+
+    /**
+     * @return Short unique name used in logs, metrics and the "source" field of events
+     */
+    String getName();
+
+    /**
+     * @return How long the aggregator waits for this source before returning without it
+     */
+    long getTimeoutMillis();
+
+    /**
+     * Fetches events matching the query. May block; called on the aggregator's pool.
+     *
+     * @param query The search
+     * @return Matching events, or an empty list if the source is not configured
+     * @throws Exception if the upstream call fails
+     */
+    List<Map<String, Object>> fetch(EventQuery query) throws Exception;
+
+    /**
+     * Fetches what changed since an earlier sync, for incremental cache refresh.
+     * The default returns the full result, which the cache diffs by per-event content
+     * hash; sources whose upstream filters by modification time override this so only
+     * changed events are downloaded.
+     *
+     * @param query The search
+     * @param since Start of the change window, or null for a full result
+     * @return The changes, or a complete snapshot
+     * @throws Exception if the upstream call fails
+     */
+    default EventDelta fetchChanges(EventQuery query, Instant since) throws Exception {
+        return EventDelta.snapshot(fetch(query), -1);
+    }
+
+    /**
+     * @return Counters kept by the source itself, such as request hedging, reported next to
+     *         the aggregator's metrics; empty by default
+     */
+    default Map<String, Object> getUpstreamMetrics() {
+        return Map.of();
+    }
+}
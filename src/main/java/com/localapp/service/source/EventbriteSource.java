@@ -0,0 +1,166 @@
+package com.localapp.service.source;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.localapp.service.AppConfigService;
+import com.localapp.util.ParseUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Event source backed by the Eventbrite v3 search API.
+ * With hedging enabled, a search that is slower than the recent p95 is sent a second
+ * time and the first response wins (see {@link RequestHedger}).
+ */
+@Component
+public class EventbriteSource implements EventSource {
+    private static final Set<String> REMOVED_STATUSES = Set.of("canceled", "deleted", "draft");
+    private final AppConfigService config;
+    private final RestTemplate http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final long timeoutMillis;
+    private final String apiBase;
+    /** Null when hedging is disabled */
+    private final RequestHedger hedger;
+    private final ExecutorService hedgeExecutor;
+
+    public EventbriteSource(AppConfigService config, @Qualifier("eventSourceRestTemplate") RestTemplate http,
+                            @Value("${events.sources.eventbrite.timeout-ms:4000}") long timeoutMillis,
+                            @Value("${events.sources.eventbrite.base-url:https://www.eventbriteapi.com/v3}") String apiBase,
+                            @Value("${events.sources.eventbrite.hedge.enabled:false}") boolean hedgeEnabled,
+                            @Value("${events.sources.eventbrite.hedge.percentile:0.95}") double hedgePercentile,
+                            @Value("${events.sources.eventbrite.hedge.min-delay-ms:50}") long hedgeMinDelayMillis,
+                            @Value("${events.sources.eventbrite.hedge.budget:0.05}") double hedgeBudget,
+                            @Value("${events.sources.eventbrite.hedge.min-samples:20}") int hedgeMinSamples) {
+        this.config = config;
+        this.http = http;
+        this.timeoutMillis = timeoutMillis;
+        this.apiBase = apiBase;
+        if (hedgeEnabled) {
+            hedgeExecutor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "eventbrite-call");
+                t.setDaemon(true);
+                return t;
+            });
+            hedger = new RequestHedger(hedgePercentile, hedgeMinDelayMillis, hedgeBudget, hedgeMinSamples, hedgeExecutor);
+        } else {
+            hedgeExecutor = null;
+            hedger = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "eventbrite";
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public Map<String, Object> getUpstreamMetrics() {
+        return hedger != null ? hedger.snapshot() : Map.of();
+    }
+
+    @Override
+    public List<Map<String, Object>> fetch(EventQuery query) throws Exception {
+        String token = config.getEventbriteToken();
+        if (token == null || token.isEmpty()) return List.of();
+
+        JsonNode events = json.readTree(callRaw(token, searchUrl(query, null))).path("events");
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (events.isArray()) {
+            for (JsonNode ev : events) result.add(parse(ev));
+        }
+        return result;
+    }
+
+    /**
+     * Uses the search API's modification-time filter, so a refresh downloads only events
+     * edited since the last sync. Cancelled events come back as removals.
+     */
+    @Override
+    public EventDelta fetchChanges(EventQuery query, Instant since) throws Exception {
+        String token = config.getEventbriteToken();
+        if (token == null || token.isEmpty()) return EventDelta.snapshot(List.of(), 0);
+
+        byte[] body = callRaw(token, searchUrl(query, since));
+        JsonNode events = json.readTree(body).path("events");
+        List<Map<String, Object>> changed = new ArrayList<>();
+        Set<String> removed = new HashSet<>();
+        if (events.isArray()) {
+            for (JsonNode ev : events) {
+                if (REMOVED_STATUSES.contains(ev.path("status").asText(""))) removed.add(ev.path("id").asText());
+                else changed.add(parse(ev));
+            }
+        }
+        return new EventDelta(changed, removed, since == null, body.length);
+    }
+
+    private String searchUrl(EventQuery query, Instant modifiedSince) {
+        StringBuilder url = new StringBuilder(apiBase + "/events/search/?expand=venue,logo");
+        if (query.city() != null && !query.city().isEmpty())
+            url.append("&location.address=").append(URLEncoder.encode(query.city(), StandardCharsets.UTF_8));
+        url.append("&start_date.range_start=").append(URLEncoder.encode(query.start(), StandardCharsets.UTF_8));
+        url.append("&start_date.range_end=").append(URLEncoder.encode(query.end(), StandardCharsets.UTF_8));
+        if (query.query() != null && !query.query().trim().isEmpty())
+            url.append("&q=").append(URLEncoder.encode(query.query(), StandardCharsets.UTF_8));
+        if (modifiedSince != null)
+            url.append("&date_modified.range_start=").append(URLEncoder.encode(
+                    modifiedSince.truncatedTo(ChronoUnit.SECONDS).toString(), StandardCharsets.UTF_8));
+        url.append("&page_size=200");
+        return url.toString();
+    }
+
+    private byte[] callRaw(String token, String url) throws Exception {
+        return hedger != null ? hedger.call(() -> get(token, url)) : get(token, url);
+    }
+
+    private byte[] get(String token, String url) {
+        HttpHeaders h = new HttpHeaders();
+        h.setBearerAuth(token);
+        h.setAccept(List.of(MediaType.APPLICATION_JSON));
+        byte[] body = http.exchange(url, HttpMethod.GET, new HttpEntity<>(h), byte[].class).getBody();
+        return body != null ? body : new byte[0];
+    }
+
+    private Map<String, Object> parse(JsonNode ev) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("id", ev.path("id").asText(null));
+        m.put("name", ev.path("name").path("text").asText(ev.path("name").asText(null)));
+        m.put("url", ev.path("url").asText(null));
+        m.put("startDate", ev.path("start").path("utc").asText(ev.path("start").path("local").asText(null)));
+        m.put("image", ev.path("logo").path("url").asText(null));
+
+        JsonNode v = ev.path("venue");
+        if (!v.isMissingNode()) {
+            m.put("venue", v.path("name").asText(null));
+            JsonNode a = v.path("address");
+            if (!a.isMissingNode()) {
+                m.put("city", a.path("city").asText(null));
+                m.put("latitude", ParseUtil.dbl(a.path("latitude").asText(null)));
+                m.put("longitude", ParseUtil.dbl(a.path("longitude").asText(null)));
+            }
+        }
+        return m;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (hedgeExecutor != null) hedgeExecutor.shutdownNow();
+    }
+}
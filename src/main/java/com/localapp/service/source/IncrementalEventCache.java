@@ -0,0 +1,129 @@
+package com.localapp.service.source;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-source result cache that refreshes by delta instead of reloading.
+ * The first request for a query loads it fully. After the refresh interval, readers keep
+ * getting the current version while one background task asks the source for changes
+ * since the last sync and publishes the next {@link EventSetVersion} with a single
+ * reference swap. Every {@code fullResyncEvery} refreshes a complete result is fetched
+ * instead, to catch removals that a changed-since query cannot report, and always while the
+ * current result holds events without an id.
+ * Entries are node-local; this mode does not use the shared cache tier.
+ */
+class IncrementalEventCache {
+    private static final Logger log = LoggerFactory.getLogger(IncrementalEventCache.class);
+    /** Change windows overlap by this much to absorb clock skew; re-applied changes hash equal and are skipped. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(60);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final EventSource source;
+    private final SourceMetrics metrics;
+    private final long refreshNanos;
+    private final int fullResyncEvery;
+    private final Executor executor;
+    private final Cache<EventQuery, Entry> entries;
+
+    private static final class Entry {
+        final AtomicReference<EventSetVersion> current = new AtomicReference<>(EventSetVersion.empty());
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long refreshedAtNanos;
+        int refreshesSinceFull;
+    }
+
+    IncrementalEventCache(EventSource source, SourceMetrics metrics, Duration refreshInterval, int fullResyncEvery,
+                          Executor executor) {
+        this.source = source;
+        this.metrics = metrics;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.fullResyncEvery = fullResyncEvery;
+        this.executor = executor;
+        // Queries nobody has asked for in an hour are dropped rather than kept in sync
+        this.entries = Caffeine.newBuilder().maximumSize(500)
+                .expireAfterAccess(Duration.ofHours(1).plus(refreshInterval)).build();
+    }
+
+    /**
+     * @return The current version's events, or null if the query was never loaded; a stale
+     * version is still returned and a background refresh is started
+     */
+    List<Map<String, Object>> getIfPresent(EventQuery query) {
+        Entry e = entries.getIfPresent(query);
+        if (e == null) return null;
+        if (System.nanoTime() - e.refreshedAtNanos > refreshNanos && e.refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        refresh(query, e);
+                    } catch (Exception ex) {
+                        metrics.error();
+                        log.warn("Incremental refresh of {} from {} failed: {}", query, source.getName(), ex.getMessage());
+                    } finally {
+                        e.refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // Pool is saturated; serve the stale version and let a later request retry the refresh
+                e.refreshing.set(false);
+            }
+        }
+        return e.current.get().getEvents();
+    }
+
+    /**
+     * Loads a query that is not cached yet; concurrent first requests share one load.
+     */
+    List<Map<String, Object>> load(EventQuery query) throws Exception {
+        try {
+            return entries.get(query, q -> {
+                Entry e = new Entry();
+                try {
+                    refresh(q, e);
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                }
+                return e;
+            }).current.get().getEvents();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Fetches changes for one entry and publishes the next version. Called by at most one thread per entry.
+     */
+    private void refresh(EventQuery query, Entry e) throws Exception {
+        long cpu0 = THREADS.getCurrentThreadCpuTime(), t0 = System.nanoTime();
+        EventSetVersion current = e.current.get();
+        boolean full = current.getSyncedAt() == null || e.refreshesSinceFull >= fullResyncEvery
+                || current.hasEventsWithoutId();
+        Instant syncStart = Instant.now();
+
+        EventDelta delta = source.fetchChanges(query, full ? null : current.getSyncedAt().minus(SYNC_OVERLAP));
+        for (Map<String, Object> ev : delta.changed()) ev.put("source", source.getName());
+        EventSetVersion next = current.apply(delta, syncStart);
+        e.current.set(next);
+        e.refreshedAtNanos = System.nanoTime();
+        e.refreshesSinceFull = delta.complete() ? 0 : e.refreshesSinceFull + 1;
+
+        metrics.upstream(e.refreshedAtNanos - t0, delta.changed().size());
+        metrics.refresh(delta.complete(), delta.bytes(), THREADS.getCurrentThreadCpuTime() - cpu0,
+                next.getInserted() + next.getUpdated() + next.getRemoved());
+    }
+}
@@ -0,0 +1,171 @@
+package com.localapp.service.source;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged execution of idempotent upstream calls. A call that has not completed after
+ * the recently observed latency percentile (p95 by default) gets a duplicate; whichever
+ * attempt succeeds first is returned and the other is cancelled by interrupting its
+ * thread, which aborts an in-flight request on the JDK HTTP client.
+ * <p>
+ * Hedges are paid from a global budget: every call earns {@code budget} tokens (0.05
+ * allows 5% extra upstream calls) and a hedge spends one, so a slow upstream cannot
+ * make the hedger double its traffic. The budget holds at most {@link #MAX_BURST}
+ * tokens. No hedges are sent until {@code minSamples} latencies have been seen.
+ */
+public class RequestHedger {
+    static final int WINDOW = 512;
+    static final double MAX_BURST = 10;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budget;
+    private final int minSamples;
+    private final ExecutorService executor;
+
+    /** Recent attempt latencies, a ring of {@link #WINDOW} */
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private long delayNanos = -1;
+    private double tokens;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    /**
+     * @param percentile Latency percentile after which a call is hedged, e.g. 0.95
+     * @param minDelayMillis Lower bound of the hedge delay
+     * @param budget Hedges allowed per call, e.g. 0.05
+     * @param minSamples Latencies to observe before hedging starts
+     * @param executor Runs the attempts; must not queue, as a waiting hedge is useless
+     */
+    public RequestHedger(double percentile, long minDelayMillis, double budget, int minSamples, ExecutorService executor) {
+        if (percentile <= 0 || percentile >= 1) throw new IllegalArgumentException("percentile must be in (0, 1)");
+        if (budget < 0 || budget > 1) throw new IllegalArgumentException("budget must be in [0, 1]");
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.budget = budget;
+        this.minSamples = Math.max(1, Math.min(WINDOW, minSamples));
+        this.executor = executor;
+    }
+
+    /**
+     * Runs {@code attempt}, hedging it once if it is slow and the budget allows.
+     *
+     * @param attempt An idempotent call that reacts to interruption
+     * @return The first successful result
+     * @throws Exception The failure of the attempt that finished last if none succeeded
+     */
+    public <T> T call(Callable<T> attempt) throws Exception {
+        calls.increment();
+        long delay = earn();
+        long start = System.nanoTime();
+        CompletionService<T> done = new ExecutorCompletionService<>(executor);
+        Future<T> primary = done.submit(timed(attempt, start));
+        Future<T> hedge = null;
+        try {
+            Future<T> first = delay >= 0 ? done.poll(delay, TimeUnit.NANOSECONDS) : null;
+            if (first == null && delay >= 0) {
+                if (spend()) {
+                    hedges.increment();
+                    hedge = done.submit(timed(attempt, System.nanoTime()));
+                } else {
+                    budgetDenied.increment();
+                }
+            }
+            if (first == null) first = done.take();
+            if (hedge != null && failed(first)) first = done.take();
+
+            Future<T> loser = first == primary ? hedge : primary;
+            if (loser != null && loser.cancel(true)) {
+                cancelled.increment();
+                // The cancelled primary would have taken at least this long; recording it keeps hedge wins from hiding the tail
+                if (loser == primary) record(System.nanoTime() - start);
+            }
+            if (first == hedge) hedgeWins.increment();
+            return first.get();
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            if (hedge != null) hedge.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /** Records the attempt's latency if it completes normally. */
+    private <T> Callable<T> timed(Callable<T> attempt, long start) {
+        return () -> {
+            T result = attempt.call();
+            record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    private static boolean failed(Future<?> f) {
+        try {
+            f.get();
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /** Adds this call's share of the budget and returns the current hedge delay, or -1 while warming up. */
+    private synchronized long earn() {
+        tokens = Math.min(MAX_BURST, tokens + budget);
+        return delayNanos;
+    }
+
+    private synchronized boolean spend() {
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    private synchronized void record(long nanos) {
+        latencies[samples % WINDOW] = nanos;
+        samples++;
+        if (samples >= minSamples && (delayNanos < 0 || samples % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(latencies, Math.min(samples, WINDOW));
+            Arrays.sort(sorted);
+            int i = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+            delayNanos = Math.max(minDelayNanos, sorted[i]);
+        }
+    }
+
+    /**
+     * @return The current hedge delay in milliseconds, or -1 before enough latencies were seen
+     */
+    public synchronized long getDelayMillis() {
+        return delayNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+
+    public long getCalls() { return calls.sum(); }
+
+    public long getHedges() { return hedges.sum(); }
+
+    public long getHedgeWins() { return hedgeWins.sum(); }
+
+    public Map<String, Object> snapshot() {
+        long c = calls.sum(), h = hedges.sum(), w = hedgeWins.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("calls", c);
+        m.put("hedgeDelayMs", getDelayMillis());
+        m.put("hedges", h);
+        m.put("hedgeRate", c == 0 ? 0.0 : (double) h / c);
+        m.put("hedgeWins", w);
+        m.put("winRate", h == 0 ? 0.0 : (double) w / h);
+        m.put("budgetDenied", budgetDenied.sum());
+        m.put("cancelled", cancelled.sum());
+        return m;
+    }
+}
@@ -0,0 +1,87 @@
+package com.localapp.service.source;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a single event source.
+ */
+public class SourceMetrics {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder upstreamNanos = new LongAdder();
+    private final LongAdder eventsReturned = new LongAdder();
+    private final LongAdder fullRefreshes = new LongAdder();
+    private final LongAdder fullRefreshBytes = new LongAdder();
+    private final LongAdder fullRefreshCpuNanos = new LongAdder();
+    private final LongAdder deltaRefreshes = new LongAdder();
+    private final LongAdder deltaRefreshBytes = new LongAdder();
+    private final LongAdder deltaRefreshCpuNanos = new LongAdder();
+    private final LongAdder eventsChanged = new LongAdder();
+
+    void request() { requests.increment(); }
+
+    void cacheHit() { cacheHits.increment(); }
+
+    void timeout() { timeouts.increment(); }
+
+    void error() { errors.increment(); }
+
+    void upstream(long nanos, int events) {
+        upstreamCalls.increment();
+        upstreamNanos.add(nanos);
+        eventsReturned.add(events);
+    }
+
+    /**
+     * Records one incremental-cache refresh.
+     *
+     * @param full True for a complete result diffed by content hash, false for a changed-since fetch
+     * @param bytes Upstream response bytes, or -1 if the source does not report them
+     * @param cpuNanos CPU time of the refreshing thread, including fetch, parse and apply
+     * @param changed Inserted, updated and removed events
+     */
+    void refresh(boolean full, long bytes, long cpuNanos, int changed) {
+        (full ? fullRefreshes : deltaRefreshes).increment();
+        if (bytes > 0) (full ? fullRefreshBytes : deltaRefreshBytes).add(bytes);
+        if (cpuNanos > 0) (full ? fullRefreshCpuNanos : deltaRefreshCpuNanos).add(cpuNanos);
+        eventsChanged.add(changed);
+    }
+
+    public long getRequests() { return requests.sum(); }
+
+    public long getCacheHits() { return cacheHits.sum(); }
+
+    public long getUpstreamCalls() { return upstreamCalls.sum(); }
+
+    public long getTimeouts() { return timeouts.sum(); }
+
+    public long getErrors() { return errors.sum(); }
+
+    public Map<String, Object> snapshot() {
+        long calls = upstreamCalls.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requests", requests.sum());
+        m.put("cacheHits", cacheHits.sum());
+        m.put("upstreamCalls", calls);
+        m.put("timeouts", timeouts.sum());
+        m.put("errors", errors.sum());
+        m.put("avgUpstreamMs", calls == 0 ? 0 : upstreamNanos.sum() / calls / 1_000_000);
+        m.put("eventsReturned", eventsReturned.sum());
+        long full = fullRefreshes.sum(), delta = deltaRefreshes.sum();
+        if (full + delta > 0) {
+            m.put("fullRefreshes", full);
+            m.put("avgFullRefreshBytes", full == 0 ? 0 : fullRefreshBytes.sum() / full);
+            m.put("avgFullRefreshCpuMicros", full == 0 ? 0 : fullRefreshCpuNanos.sum() / full / 1000);
+            m.put("deltaRefreshes", delta);
+            m.put("avgDeltaRefreshBytes", delta == 0 ? 0 : deltaRefreshBytes.sum() / delta);
+            m.put("avgDeltaRefreshCpuMicros", delta == 0 ? 0 : deltaRefreshCpuNanos.sum() / delta / 1000);
+            m.put("eventsChanged", eventsChanged.sum());
+        }
+        return m;
+    }
+}
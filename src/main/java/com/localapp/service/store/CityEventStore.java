@@ -0,0 +1,199 @@
+package com.localapp.service.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.localapp.service.source.EventAggregator;
+import com.localapp.service.source.EventQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Per-city event store answering any time window from one dataset.
+ * Events are loaded through {@link EventAggregator} one UTC day at a time and kept as
+ * {@link DaySegment}s sorted by start time, so the full-day listing, the "tonight"
+ * window and other ranges over the same days share one upstream query per day instead
+ * of one per distinct window. A window is answered by binary search in each overlapping
+ * segment, with the slices joined in day order. Missing days of a window are loaded
+ * together, and a day some source did not answer for is served but not kept.
+ */
+@Service
+public class CityEventStore {
+    /** Longest range one call may cover; each day is a segment load on a miss. */
+    public static final int MAX_DAYS = 14;
+    /** Largest viewport in clustering cells (64 px each), i.e. a 4096 x 4096 px screen. */
+    public static final int MAX_VIEWPORT_CELLS = 64 * 64;
+    public static final int MAX_ZOOM = ClusterIndex.MAX_LEVEL - 2;
+    private static final int MAX_CLUSTER_INDEXES = 200;
+
+    private final EventAggregator aggregator;
+    private final Cache<SegmentKey, DaySegment> segments;
+    /** Outlive segment reloads so they can be updated from the difference instead of rebuilt */
+    private final Cache<SegmentKey, ClusterIndex> clusterIndexes;
+
+    /**
+     * @param ttlSeconds Segment lifetime; rebuilding from the aggregator's cache is cheap,
+     *                   so this is kept shorter than the upstream result cache so that late
+     *                   results from a slow source are picked up
+     */
+    public CityEventStore(EventAggregator aggregator,
+                          @Value("${events.store.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${events.store.max-segments:2000}") long maxSegments) {
+        this.aggregator = aggregator;
+        this.segments = Caffeine.newBuilder()
+                .maximumSize(maxSegments)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.clusterIndexes = Caffeine.newBuilder()
+                .maximumSize(MAX_CLUSTER_INDEXES)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+
+    /**
+     * Returns events starting in {@code [from, to]}, ordered by start time. Events without
+     * a start time are included only for days the window covers completely.
+     *
+     * @param city City name, "" for all locations
+     * @param query Optional text search (e.g. artist), part of the dataset key
+     * @param from Window start, inclusive
+     * @param to Window end, inclusive
+     * @return New mutable maps the caller may modify
+     */
+    public List<Map<String, Object>> window(String city, String query, Instant from, Instant to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("Window end is before its start");
+        LocalDate first = from.atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate last = to.atZone(ZoneOffset.UTC).toLocalDate();
+        if (first.plusDays(MAX_DAYS - 1).isBefore(last)) {
+            throw new IllegalArgumentException("Time window is longer than " + MAX_DAYS + " days");
+        }
+        long lo = from.getEpochSecond(), hi = to.getEpochSecond();
+
+        List<SegmentKey> keys = new ArrayList<>();
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+            keys.add(new SegmentKey(city, query != null ? query : "", d));
+        }
+        List<DaySegment> days = segments(keys);
+
+        // Days do not overlap in time, so merging the per-day slices is a concatenation in day order
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (DaySegment s : days) {
+            int end = s.lowerBound(hi + 1);
+            for (int i = s.lowerBound(lo); i < end; i++) result.add(s.event(i));
+        }
+        for (DaySegment s : days) {
+            if (!s.coversDay(lo, hi)) continue;
+            for (int i = s.timedCount(); i < s.size(); i++) result.add(s.event(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return Event list for one UTC calendar day
+     */
+    public List<Map<String, Object>> day(String city, String query, LocalDate date) {
+        Instant start = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        return window(city, query, start, start.plusSeconds(86_399));
+    }
+
+    /**
+     * Clusters the located events of one day inside a map viewport. Cells are 64 px wide at
+     * the given zoom, so the number of clusters is bounded by the screen size rather than by
+     * the number of events. Viewports crossing the antimeridian must be split by the caller.
+     *
+     * @param zoom Web map zoom level, 0 to {@link #MAX_ZOOM}
+     * @return zoom, grid level, total events in view and clusters (largest first), each with
+     *         count, centroid and up to three representative events (earliest first)
+     */
+    public Map<String, Object> viewport(String city, LocalDate date, double south, double west, double north, double east, int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        if (south < -90 || north > 90 || south > north) throw new IllegalArgumentException("Invalid latitude range");
+        if (west < -180 || east > 180 || west > east) throw new IllegalArgumentException("Invalid longitude range");
+        int level = zoom + 2;
+        long cells = (long) (ClusterIndex.tileX(east, level) - ClusterIndex.tileX(west, level) + 1)
+                * (ClusterIndex.tileY(south, level) - ClusterIndex.tileY(north, level) + 1);
+        if (cells > MAX_VIEWPORT_CELLS) throw new IllegalArgumentException("Viewport is too large for zoom " + zoom);
+
+        SegmentKey key = new SegmentKey(city, "", date);
+        DaySegment segment = segments(List.of(key)).get(0);
+        List<ClusterIndex.Cluster> clusters = clusterIndexes.get(key, k -> new ClusterIndex())
+                .query(segment, level, south, west, north, east);
+        clusters.sort(Comparator.comparingInt(ClusterIndex.Cluster::count).reversed());
+
+        List<Map<String, Object>> out = new ArrayList<>(clusters.size());
+        int total = 0;
+        for (ClusterIndex.Cluster c : clusters) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("latitude", c.latitude());
+            m.put("longitude", c.longitude());
+            m.put("count", c.count());
+            m.put("events", c.events());
+            out.add(m);
+            total += c.count();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("zoom", zoom);
+        response.put("level", level);
+        response.put("total", total);
+        response.put("clusters", out);
+        return response;
+    }
+
+    /**
+     * @return Segment count, event count and estimated heap use, with bytes per 10k events
+     */
+    public Map<String, Object> stats() {
+        long events = 0, bytes = 0;
+        int count = 0;
+        for (DaySegment s : segments.asMap().values()) {
+            count++;
+            events += s.size();
+            bytes += s.memoryBytes();
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("segments", count);
+        m.put("events", events);
+        m.put("bytes", bytes);
+        m.put("bytesPer10kEvents", events > 0 ? bytes * 10_000 / events : 0);
+        m.put("clusterIndexes", clusterIndexes.estimatedSize());
+        return m;
+    }
+
+    /**
+     * Cached segments, with all missing days fetched in one parallel round. Concurrent misses
+     * on the same day may both build it; the aggregator's cache still sends one upstream query.
+     */
+    private List<DaySegment> segments(List<SegmentKey> keys) {
+        DaySegment[] out = new DaySegment[keys.size()];
+        List<Integer> missing = new ArrayList<>();
+        List<EventQuery> queries = new ArrayList<>();
+        for (int i = 0; i < out.length; i++) {
+            SegmentKey k = keys.get(i);
+            out[i] = segments.getIfPresent(k);
+            if (out[i] != null) continue;
+            String day = k.day().toString();
+            missing.add(i);
+            queries.add(new EventQuery(k.city(), day + "T00:00:00Z", day + "T23:59:59Z", k.query().isEmpty() ? null : k.query()));
+        }
+        if (!queries.isEmpty()) {
+            List<EventAggregator.Result> results = aggregator.fetchAll(queries);
+            for (int j = 0; j < results.size(); j++) {
+                SegmentKey k = keys.get(missing.get(j));
+                EventAggregator.Result r = results.get(j);
+                DaySegment s = new DaySegment(k.day().atStartOfDay(ZoneOffset.UTC).toEpochSecond(), r.events());
+                // A failed or late source would otherwise be missing from this day for the whole TTL
+                if (r.complete()) segments.put(k, s);
+                out[missing.get(j)] = s;
+            }
+        }
+        return Arrays.asList(out);
+    }
+
+    private record SegmentKey(String city, String query, LocalDate day) {
+    }
+}
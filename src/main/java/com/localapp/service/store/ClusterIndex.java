@@ -0,0 +1,263 @@
+package com.localapp.service.store;
+
+import com.localapp.service.source.EventSetVersion;
+
+import java.util.*;
+
+/**
+ * Hierarchical grid over the located events of one city and day, used for map marker
+ * clustering. Cells follow Web Mercator tiles: level {@code L} divides the world into
+ * {@code 2^L x 2^L} cells, so a cell at level {@code zoom + 2} is 64 screen pixels wide
+ * at that zoom. Cell keys are interleaved x/y bits, which makes a parent key the child
+ * key shifted right by two, as with geohash prefixes. Levels go down to cells of a few
+ * metres, so that at the highest zoom only events at the same spot share a cluster. Every cell keeps its event count,
+ * coordinate sums for the centroid and a few representative events (earliest start).
+ * <p>
+ * The index is kept in step with the store's day segments by diffing event ids, so a
+ * segment reload touches only the cells of events that were added, moved or removed.
+ * Events without an id are matched by content hash.
+ * Access is synchronized; queries are short and read only the cells in the viewport.
+ */
+final class ClusterIndex {
+    /** 64 px cells at {@link CityEventStore#MAX_ZOOM} */
+    static final int MAX_LEVEL = 24;
+    static final int REPRESENTATIVES = 3;
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    private static final Comparator<Member> EARLIEST = Comparator.comparingLong((Member m) -> m.start).thenComparing(m -> m.key);
+
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_LEVEL + 1);
+    private final Map<String, Member> members = new HashMap<>();
+    private DaySegment synced;
+
+    /** Changes applied by the last {@link #sync}: added, removed */
+    private int lastAdded, lastRemoved;
+
+    ClusterIndex() {
+        for (int l = 0; l <= MAX_LEVEL; l++) levels.add(new HashMap<>());
+    }
+
+    /** One located event; {@code pos} is its position in the last synced segment. */
+    static final class Member {
+        final String key;
+        final double lat, lon;
+        final long start;
+        final long code;
+        int pos;
+
+        Member(String key, double lat, double lon, long start, int pos) {
+            this.key = key;
+            this.lat = lat;
+            this.lon = lon;
+            this.start = start;
+            this.pos = pos;
+            this.code = interleave(tileX(lon, MAX_LEVEL), tileY(lat, MAX_LEVEL));
+        }
+
+        boolean samePlaceAndTime(double lat, double lon, long start) {
+            return this.lat == lat && this.lon == lon && this.start == start;
+        }
+    }
+
+    static final class Cell {
+        final int x, y;
+        int count;
+        double sumLat, sumLon;
+        Member[] reps = new Member[0];
+        /** Only at {@link #MAX_LEVEL} */
+        List<Member> leafMembers;
+
+        Cell(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * One viewport cell ready for the response.
+     *
+     * @param events Representative events, earliest first
+     */
+    record Cluster(int level, int x, int y, int count, double latitude, double longitude, List<Map<String, Object>> events) {
+    }
+
+    /**
+     * Brings the index up to date with {@code segment} and returns the non-empty cells
+     * intersecting the box at {@code level}.
+     */
+    synchronized List<Cluster> query(DaySegment segment, int level, double south, double west, double north, double east) {
+        if (segment != synced) sync(segment);
+        Map<Long, Cell> cells = levels.get(level);
+        int x0 = tileX(west, level), x1 = tileX(east, level);
+        int y0 = tileY(north, level), y1 = tileY(south, level);
+
+        List<Cell> hits = new ArrayList<>();
+        long area = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+        if (area <= cells.size()) {
+            for (int y = y0; y <= y1; y++) {
+                for (int x = x0; x <= x1; x++) {
+                    Cell c = cells.get(interleave(x, y));
+                    if (c != null) hits.add(c);
+                }
+            }
+        } else {
+            for (Cell c : cells.values()) {
+                if (c.x >= x0 && c.x <= x1 && c.y >= y0 && c.y <= y1) hits.add(c);
+            }
+        }
+
+        List<Cluster> result = new ArrayList<>(hits.size());
+        for (Cell c : hits) {
+            List<Map<String, Object>> events = new ArrayList<>(c.reps.length);
+            for (Member m : c.reps) events.add(segment.event(m.pos));
+            result.add(new Cluster(level, c.x, c.y, c.count, c.sumLat / c.count, c.sumLon / c.count, events));
+        }
+        return result;
+    }
+
+    /**
+     * Applies the difference between the last synced segment and {@code segment}.
+     */
+    synchronized void sync(DaySegment segment) {
+        Map<String, Member> previous = new HashMap<>(members);
+        Set<String> seen = new HashSet<>();
+        int added = 0, removed = 0;
+        for (int i = 0; i < segment.size(); i++) {
+            double lat = segment.latitude(i), lon = segment.longitude(i);
+            if (Double.isNaN(lat) || Double.isNaN(lon)) continue;
+            String id = segment.id(i);
+            String key = id != null ? id : "#" + Long.toHexString(EventSetVersion.contentHash(segment.event(i)));
+            if (!seen.add(key)) continue;
+            long start = segment.startAt(i);
+
+            Member old = previous.remove(key);
+            if (old != null && old.samePlaceAndTime(lat, lon, start)) {
+                old.pos = i;
+                continue;
+            }
+            if (old != null) {
+                remove(old);
+                removed++;
+            }
+            add(new Member(key, lat, lon, start, i));
+            added++;
+        }
+        for (Member gone : previous.values()) {
+            remove(gone);
+            removed++;
+        }
+        synced = segment;
+        lastAdded = added;
+        lastRemoved = removed;
+    }
+
+    synchronized int size() {
+        return members.size();
+    }
+
+    synchronized int[] lastChanges() {
+        return new int[]{lastAdded, lastRemoved};
+    }
+
+    private void add(Member m) {
+        members.put(m.key, m);
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            long key = m.code >>> (2 * (MAX_LEVEL - level));
+            Cell c = levels.get(level).computeIfAbsent(key, k -> new Cell(deinterleave(k), deinterleave(k >>> 1)));
+            c.count++;
+            c.sumLat += m.lat;
+            c.sumLon += m.lon;
+            if (level == MAX_LEVEL) {
+                if (c.leafMembers == null) c.leafMembers = new ArrayList<>(2);
+                c.leafMembers.add(m);
+            }
+            c.reps = offer(c.reps, m);
+        }
+    }
+
+    private void remove(Member m) {
+        members.remove(m.key);
+        // Bottom-up, so a parent recomputing its representatives sees updated children
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            long key = m.code >>> (2 * (MAX_LEVEL - level));
+            Cell c = levels.get(level).get(key);
+            if (c == null) continue;
+            if (--c.count == 0) {
+                levels.get(level).remove(key);
+                continue;
+            }
+            c.sumLat -= m.lat;
+            c.sumLon -= m.lon;
+            if (level == MAX_LEVEL) c.leafMembers.remove(m);
+            if (Arrays.asList(c.reps).contains(m)) c.reps = level == MAX_LEVEL ? earliest(c.leafMembers) : fromChildren(level, key);
+        }
+    }
+
+    private Member[] fromChildren(int level, long key) {
+        List<Member> candidates = new ArrayList<>(4 * REPRESENTATIVES);
+        for (int child = 0; child < 4; child++) {
+            Cell c = levels.get(level + 1).get((key << 2) | child);
+            if (c != null) candidates.addAll(Arrays.asList(c.reps));
+        }
+        return earliest(candidates);
+    }
+
+    private static Member[] earliest(List<Member> candidates) {
+        List<Member> sorted = new ArrayList<>(candidates);
+        sorted.sort(EARLIEST);
+        return sorted.subList(0, Math.min(REPRESENTATIVES, sorted.size())).toArray(new Member[0]);
+    }
+
+    private static Member[] offer(Member[] reps, Member m) {
+        if (reps.length == REPRESENTATIVES && EARLIEST.compare(m, reps[reps.length - 1]) >= 0) return reps;
+        Member[] next = Arrays.copyOf(reps, Math.min(REPRESENTATIVES, reps.length + 1));
+        int i = Math.min(reps.length, REPRESENTATIVES - 1);
+        while (i > 0 && EARLIEST.compare(m, next[i - 1]) < 0) {
+            next[i] = next[i - 1];
+            i--;
+        }
+        next[i] = m;
+        return next;
+    }
+
+    static int tileX(double lon, int level) {
+        double x = (Math.max(-180.0, Math.min(180.0, lon)) + 180.0) / 360.0;
+        return clampTile((int) Math.floor(x * (1 << level)), level);
+    }
+
+    static int tileY(double lat, int level) {
+        double phi = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat)));
+        double y = (1 - Math.log(Math.tan(phi) + 1 / Math.cos(phi)) / Math.PI) / 2;
+        return clampTile((int) Math.floor(y * (1 << level)), level);
+    }
+
+    private static int clampTile(int t, int level) {
+        return Math.max(0, Math.min((1 << level) - 1, t));
+    }
+
+    /** Interleaves x into the even and y into the odd bits. */
+    static long interleave(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(int v) {
+        long x = v & 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    /** Collects the even bits of {@code code}. */
+    private static int deinterleave(long code) {
+        long x = code & 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return (int) x;
+    }
+}
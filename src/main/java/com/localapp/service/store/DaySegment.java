@@ -0,0 +1,165 @@
+package com.localapp.service.store;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Events of one city and UTC day in columnar form: start times as epoch seconds sorted
+ * ascending, coordinates as doubles, and every text field as an index into a per-segment
+ * string pool. A time window is two binary searches; maps are only built for the events
+ * actually returned. Events without a parseable start time are kept after the sorted
+ * range and only returned for windows covering the whole day.
+ */
+final class DaySegment {
+    /** Text fields kept per event, in the common event format. */
+    private static final String[] TEXT_FIELDS = {"id", "name", "url", "startDate", "image", "venue", "city", "source"};
+    private static final int NONE = -1;
+
+    final long dayStart;
+    final long dayEnd;
+    private final long[] start;
+    private final double[] lat, lon;
+    /** Column-major: text[f * size + i] is field f of event i. */
+    private final int[] text;
+    private final String[] strings;
+    private final int size;
+    private final int timed;
+
+    /**
+     * @param dayStart Epoch second of 00:00 UTC
+     * @param events Upstream events for that day; other fields than the common ones are not kept
+     */
+    DaySegment(long dayStart, List<Map<String, Object>> events) {
+        this.dayStart = dayStart;
+        this.dayEnd = dayStart + 86_400;
+        this.size = events.size();
+
+        long[] starts = new long[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            starts[i] = parseStart(events.get(i).get("startDate"));
+        }
+        // Timed events by start time, untimed ones after them
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        start = new long[size];
+        lat = new double[size];
+        lon = new double[size];
+        text = new int[TEXT_FIELDS.length * size];
+        Map<String, Integer> pool = new HashMap<>();
+        List<String> poolStrings = new ArrayList<>();
+        int t = 0;
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> e = events.get(order[i]);
+            start[i] = starts[order[i]];
+            if (start[i] != Long.MAX_VALUE) t++;
+            lat[i] = coordinate(e.get("latitude"));
+            lon[i] = coordinate(e.get("longitude"));
+            for (int f = 0; f < TEXT_FIELDS.length; f++) {
+                Object v = e.get(TEXT_FIELDS[f]);
+                text[f * size + i] = v == null ? NONE : pool.computeIfAbsent(v.toString(), s -> {
+                    poolStrings.add(s);
+                    return poolStrings.size() - 1;
+                });
+            }
+        }
+        timed = t;
+        strings = poolStrings.toArray(new String[0]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Index of the first timed event starting at or after {@code epochSecond}
+     */
+    int lowerBound(long epochSecond) {
+        int lo = 0, hi = timed;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[mid] < epochSecond) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * @return Whether untimed events belong in a window, i.e. it covers the whole day
+     */
+    boolean coversDay(long from, long to) {
+        return from <= dayStart && to >= dayEnd - 1;
+    }
+
+    int timedCount() {
+        return timed;
+    }
+
+    long startAt(int i) {
+        return start[i];
+    }
+
+    String id(int i) {
+        int ref = text[i];
+        return ref != NONE ? strings[ref] : null;
+    }
+
+    /**
+     * @return Latitude of event {@code i}, NaN if unknown
+     */
+    double latitude(int i) {
+        return lat[i];
+    }
+
+    double longitude(int i) {
+        return lon[i];
+    }
+
+    /**
+     * Builds the event map for position {@code i}; the map is new and owned by the caller.
+     */
+    Map<String, Object> event(int i) {
+        Map<String, Object> m = new HashMap<>(16);
+        for (int f = 0; f < TEXT_FIELDS.length; f++) {
+            int ref = text[f * size + i];
+            if (ref != NONE) m.put(TEXT_FIELDS[f], strings[ref]);
+        }
+        if (!Double.isNaN(lat[i])) m.put("latitude", lat[i]);
+        if (!Double.isNaN(lon[i])) m.put("longitude", lon[i]);
+        return m;
+    }
+
+    /**
+     * @return Approximate retained heap size: arrays, pooled strings and object headers
+     */
+    long memoryBytes() {
+        long bytes = 16 + 8L * 8                       // object header and fields
+                + 16 + 8L * size                        // start
+                + 2 * (16 + 8L * size)                  // lat, lon
+                + 16 + 4L * text.length                 // text refs
+                + 16 + 4L * strings.length;             // pool array (compressed refs)
+        for (String s : strings) bytes += 24 + 16 + s.length();   // String + Latin-1 byte[]
+        return bytes;
+    }
+
+    private static long parseStart(Object startDate) {
+        if (startDate == null) return Long.MAX_VALUE;
+        try {
+            return Instant.parse(startDate.toString()).getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static double coordinate(Object o) {
+        if (o instanceof Number n) return n.doubleValue();
+        if (o == null) return Double.NaN;
+        try {
+            return Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
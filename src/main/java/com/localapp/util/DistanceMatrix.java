@@ -0,0 +1,120 @@
+package com.localapp.util;
+
+import java.util.stream.IntStream;
+
+/**
+ * Great-circle distances from a set of origins to a set of points, in miles.
+ * Inputs are structure-of-arrays coordinates in degrees. Each point is converted once
+ * to a unit vector on the sphere, after which a distance needs only multiply-adds, a
+ * square root and an arcsine of the half chord length; this gives the same result as
+ * {@link DistanceUtil#haversine} without per-pair trigonometry. The inner loop is a scalar
+ * loop by default. A Vector API kernel is available as an opt-in: build with
+ * {@code -Pvector} and start the JVM with {@code --add-modules jdk.incubator.vector}; it is
+ * picked up at runtime when both are present. Large matrices are split into row and column
+ * blocks computed in parallel.
+ */
+public class DistanceMatrix {
+    static final double EARTH_RADIUS_MILES = 3958.8;
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int COLUMN_BLOCK = 4096;
+    private static final RowKernel VECTOR_KERNEL = loadVectorKernel();
+
+    public enum Kernel { AUTO, SCALAR, VECTOR }
+
+    /** Fills rows [rowFrom, rowTo) and columns [colFrom, colTo) of the row-major output. */
+    interface RowKernel {
+        void rows(Points o, Points p, int rowFrom, int rowTo, int colFrom, int colTo, double[] out);
+    }
+
+    /**
+     * Points converted to unit vectors, reusable across calls.
+     */
+    public static final class Points {
+        final double[] x, y, z;
+
+        public Points(double[] latDeg, double[] lonDeg) {
+            if (latDeg.length != lonDeg.length) throw new IllegalArgumentException("Latitude and longitude arrays must have equal length");
+            int n = latDeg.length;
+            x = new double[n];
+            y = new double[n];
+            z = new double[n];
+            for (int i = 0; i < n; i++) {
+                double lat = Math.toRadians(latDeg[i]), lon = Math.toRadians(lonDeg[i]);
+                double cosLat = Math.cos(lat);
+                x[i] = cosLat * Math.cos(lon);
+                y[i] = cosLat * Math.sin(lon);
+                z[i] = Math.sin(lat);
+            }
+        }
+
+        public int size() {
+            return x.length;
+        }
+    }
+
+    /**
+     * @return true if the Vector API kernel is used for {@link Kernel#AUTO}
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * @return Row-major origins x points matrix of distances in miles
+     */
+    public static double[] compute(double[] originLat, double[] originLon, double[] pointLat, double[] pointLon) {
+        return compute(new Points(originLat, originLon), new Points(pointLat, pointLon), Kernel.AUTO);
+    }
+
+    /**
+     * @param origins Matrix rows
+     * @param points Matrix columns
+     * @param kernel Which inner loop to use; {@link Kernel#VECTOR} falls back to scalar if unavailable
+     * @return Row-major origins x points matrix of distances in miles
+     */
+    public static double[] compute(Points origins, Points points, Kernel kernel) {
+        int rows = origins.size(), cols = points.size();
+        double[] out = new double[rows * cols];
+        boolean vector = kernel != Kernel.SCALAR && VECTOR_KERNEL != null;
+
+        if ((long) rows * cols < PARALLEL_THRESHOLD) {
+            run(vector, origins, points, 0, rows, 0, cols, out);
+            return out;
+        }
+        int colBlocks = (cols + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        IntStream.range(0, rows * colBlocks).parallel().forEach(task -> {
+            int r = task / colBlocks, c = (task % colBlocks) * COLUMN_BLOCK;
+            run(vector, origins, points, r, r + 1, c, Math.min(cols, c + COLUMN_BLOCK), out);
+        });
+        return out;
+    }
+
+    private static void run(boolean vector, Points o, Points p, int rowFrom, int rowTo, int colFrom, int colTo, double[] out) {
+        if (vector) VECTOR_KERNEL.rows(o, p, rowFrom, rowTo, colFrom, colTo, out);
+        else scalarRows(o, p, rowFrom, rowTo, colFrom, colTo, out);
+    }
+
+    static void scalarRows(Points o, Points p, int rowFrom, int rowTo, int colFrom, int colTo, double[] out) {
+        int cols = p.size();
+        for (int r = rowFrom; r < rowTo; r++) {
+            double ax = o.x[r], ay = o.y[r], az = o.z[r];
+            int base = r * cols;
+            for (int j = colFrom; j < colTo; j++) {
+                double dx = p.x[j] - ax, dy = p.y[j] - ay, dz = p.z[j] - az;
+                double halfChord = 0.5 * Math.sqrt(dx * dx + dy * dy + dz * dz);
+                out[base + j] = 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1.0, halfChord));
+            }
+        }
+    }
+
+    /** The kernel class is absent unless built with -Pvector, and unusable unless the module was added. */
+    private static RowKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (RowKernel) Class.forName("com.localapp.util.VectorDistanceKernel").getDeclaredConstructor().newInstance();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.localapp.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes duplicate events in two passes.
+ * The exact pass hashes normalized name, start time and venue (lowercased, punctuation
+ * ignored, whitespace runs collapsed to one separator) straight from the field characters
+ * into a 64-bit fingerprint and keeps
+ * the first event per fingerprint in a {@link LongHashSet}, so no key strings are built.
+ * The optional near-duplicate pass collapses events whose name SimHashes are within a few
+ * bits, whose start times are within a tolerance, and whose venues are close (coordinates
+ * within a radius, or one venue name's tokens contained in the other's, e.g. "The Blue
+ * Note" and "Blue Note NYC"). Candidates are found through locality-sensitive bands of
+ * the SimHash, which keeps the pass roughly linear. Events whose name has no tokens besides
+ * stopwords, and events without coordinates or a venue, are only ever removed as exact duplicates.
+ */
+public class EventDeduplicator {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 64 / BANDS;
+    private static final int MAX_HAMMING = 3;
+    private static final int MAX_CANDIDATES = 16;
+    private static final double MIN_VENUE_CONTAINMENT = 0.5;
+    private static final LongHashSet STOPWORDS = new LongHashSet(16);
+
+    static {
+        for (String w : new String[]{"the", "a", "an", "at", "of", "and", "in", "on", "with", "live"}) {
+            STOPWORDS.add(tokenHash(w, 0, w.length()));
+        }
+    }
+
+    private final boolean nearDuplicates;
+    private final long timeToleranceSec;
+    private final double venueRadiusMiles;
+
+    /**
+     * @param nearDuplicates Whether to run the near-duplicate pass after the exact pass
+     * @param timeToleranceSec Maximum start time difference for near duplicates
+     * @param venueRadiusMiles Maximum venue distance for near duplicates when both have coordinates
+     */
+    public EventDeduplicator(boolean nearDuplicates, long timeToleranceSec, double venueRadiusMiles) {
+        this.nearDuplicates = nearDuplicates;
+        this.timeToleranceSec = timeToleranceSec;
+        this.venueRadiusMiles = venueRadiusMiles;
+    }
+
+    /**
+     * @param events Events in priority order; the first of each duplicate group is kept and,
+     *               in the near-duplicate pass, gets missing fields filled in from the others
+     * @return The surviving events, in input order
+     */
+    public List<Map<String, Object>> dedupe(List<Map<String, Object>> events) {
+        LongHashSet seen = new LongHashSet(events.size());
+        List<Map<String, Object>> kept = new ArrayList<>(events.size());
+        for (Map<String, Object> e : events) {
+            if (seen.add(fingerprint(e))) kept.add(e);
+        }
+        return nearDuplicates ? collapseNear(kept) : kept;
+    }
+
+    /**
+     * 64-bit fingerprint of an event's normalized name, start time and venue.
+     */
+    public static long fingerprint(Map<String, Object> e) {
+        long h = FNV_OFFSET;
+        h = hashNormalized(h, e.get("name"));
+        h = (h ^ '|') * FNV_PRIME;
+        h = hashNormalized(h, e.get("startDate"));
+        h = (h ^ '|') * FNV_PRIME;
+        h = hashNormalized(h, e.get("venue"));
+        return mix(h);
+    }
+
+    /** Word boundaries are kept so that "ab c" and "a bc" do not collide. */
+    private static long hashNormalized(long h, Object field) {
+        if (field == null) return h;
+        String s = field.toString();
+        boolean started = false, space = false;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && started) h = (h ^ ' ') * FNV_PRIME;
+                h = (h ^ Character.toLowerCase(c)) * FNV_PRIME;
+                started = true;
+                space = false;
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * SimHash over the non-stopword tokens of a string; similar token sets give hashes with small Hamming distance.
+     * A string without such tokens hashes to 0, see {@link #hasTokens}.
+     */
+    static long simHash(Object field, int[] weights) {
+        if (field == null) return 0L;
+        Arrays.fill(weights, 0);
+        String s = field.toString();
+        int n = s.length(), i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(s.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(s.charAt(i))) i++;
+            if (i == start) break;
+            long t = tokenHash(s, start, i);
+            if (STOPWORDS.contains(t)) continue;
+            long h = mix(t);
+            for (int b = 0; b < 64; b++) weights[b] += ((h >>> b) & 1L) != 0 ? 1 : -1;
+        }
+        long sim = 0L;
+        for (int b = 0; b < 64; b++) if (weights[b] > 0) sim |= 1L << b;
+        return sim;
+    }
+
+    /** Whether the string has a non-stopword token, i.e. whether its SimHash says anything about it. */
+    static boolean hasTokens(Object field) {
+        if (field == null) return false;
+        String s = field.toString();
+        int n = s.length(), i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(s.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(s.charAt(i))) i++;
+            if (i == start) break;
+            if (!STOPWORDS.contains(tokenHash(s, start, i))) return true;
+        }
+        return false;
+    }
+
+    private static long tokenHash(String s, int from, int to) {
+        long h = FNV_OFFSET;
+        for (int i = from; i < to; i++) h = (h ^ Character.toLowerCase(s.charAt(i))) * FNV_PRIME;
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private List<Map<String, Object>> collapseNear(List<Map<String, Object>> events) {
+        int n = events.size();
+        long[] sim = new long[n];
+        boolean[] named = new boolean[n];
+        long[] start = new long[n];
+        double[] lat = new double[n], lon = new double[n];
+        int[] weights = new int[64];
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> e = events.get(i);
+            named[i] = hasTokens(e.get("name"));
+            sim[i] = named[i] ? simHash(e.get("name"), weights) : 0L;
+            Instant t = ParseUtil.parseTime(ParseUtil.str(e.get("startDate")));
+            start[i] = t.equals(Instant.EPOCH) ? Long.MIN_VALUE : t.getEpochSecond();
+            Double la = ParseUtil.dbl(e.get("latitude")), lo = ParseUtil.dbl(e.get("longitude"));
+            lat[i] = la != null ? la : Double.NaN;
+            lon[i] = lo != null ? lo : Double.NaN;
+        }
+
+        BandIndex index = new BandIndex(n * BANDS);
+        List<Map<String, Object>> kept = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // Every unnamed event would share SimHash 0 and match every other unnamed event
+            if (!named[i]) {
+                kept.add(events.get(i));
+                continue;
+            }
+            int match = -1;
+            for (int b = 0; b < BANDS && match < 0; b++) {
+                long key = ((long) b << BAND_BITS) | ((sim[i] >>> (b * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+                int checked = 0;
+                for (int entry = index.head(key); entry >= 0 && checked < MAX_CANDIDATES; entry = index.next(entry), checked++) {
+                    int j = entry / BANDS;
+                    if (isNear(events, sim, start, lat, lon, i, j)) {
+                        match = j;
+                        break;
+                    }
+                }
+            }
+            if (match >= 0) {
+                // Only kept events are indexed, so the match is the group's representative
+                Map<String, Object> keep = events.get(match);
+                events.get(i).forEach((k, v) -> {
+                    if (v != null && keep.get(k) == null) keep.put(k, v);
+                });
+                continue;
+            }
+            kept.add(events.get(i));
+            for (int b = 0; b < BANDS; b++) {
+                long key = ((long) b << BAND_BITS) | ((sim[i] >>> (b * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+                index.add(key, i * BANDS + b);
+            }
+        }
+        return kept;
+    }
+
+    private boolean isNear(List<Map<String, Object>> events, long[] sim, long[] start, double[] lat, double[] lon, int i, int j) {
+        if (Long.bitCount(sim[i] ^ sim[j]) > MAX_HAMMING) return false;
+        if ((start[i] == Long.MIN_VALUE) != (start[j] == Long.MIN_VALUE)) return false;
+        if (start[i] != Long.MIN_VALUE && Math.abs(start[i] - start[j]) > timeToleranceSec) return false;
+        if (!Double.isNaN(lat[i]) && !Double.isNaN(lat[j])) {
+            return DistanceUtil.haversine(lat[i], lon[i], lat[j], lon[j]) <= venueRadiusMiles;
+        }
+        return venueContainment(events.get(i).get("venue"), events.get(j).get("venue")) >= MIN_VENUE_CONTAINMENT;
+    }
+
+    /** Share of the smaller venue's tokens that also appear in the other venue; 0 if either venue is missing. */
+    static double venueContainment(Object a, Object b) {
+        if (a == null || b == null) return 0.0;
+        long[] ta = tokens(a.toString()), tb = tokens(b.toString());
+        if (ta.length == 0 || tb.length == 0) return 0.0;
+        int common = 0;
+        for (long x : ta) {
+            for (long y : tb) {
+                if (x == y) {
+                    common++;
+                    break;
+                }
+            }
+        }
+        return (double) common / Math.min(ta.length, tb.length);
+    }
+
+    private static long[] tokens(String s) {
+        long[] out = new long[8];
+        int count = 0, n = s.length(), i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(s.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(s.charAt(i))) i++;
+            if (i == start) break;
+            long t = tokenHash(s, start, i);
+            if (STOPWORDS.contains(t)) continue;
+            if (count == out.length) out = Arrays.copyOf(out, count * 2);
+            out[count++] = t;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /** Open-addressing multimap from band key to (event index * BANDS + band) entries, chained through an int array. */
+    private static final class BandIndex {
+        private final long[] keys;
+        private final int[] heads;
+        private final int[] next;
+        private final int mask;
+
+        BandIndex(int capacity) {
+            int cap = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+            keys = new long[cap];
+            heads = new int[cap];
+            Arrays.fill(heads, -1);
+            next = new int[capacity];
+            mask = cap - 1;
+        }
+
+        int head(long key) {
+            int i = slot(key);
+            while (heads[i] >= 0) {
+                if (keys[i] == key) return heads[i];
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        int next(int entry) {
+            return next[entry];
+        }
+
+        void add(long key, int entry) {
+            int i = slot(key);
+            while (heads[i] >= 0 && keys[i] != key) i = (i + 1) & mask;
+            keys[i] = key;
+            next[entry] = heads[i];
+            heads[i] = entry;
+        }
+
+        private int slot(long key) {
+            return (int) mix(key) & mask;
+        }
+    }
+}
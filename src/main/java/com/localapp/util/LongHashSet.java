@@ -0,0 +1,65 @@
+package com.localapp.util;
+
+/**
+ * Open-addressing set of primitive longs with linear probing.
+ * Avoids boxing when deduplicating by 64-bit fingerprints.
+ */
+public class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final long ZERO_STANDIN = 0x9E3779B97F4A7C15L;
+
+    private long[] table;
+    private int size;
+    private int mask;
+
+    public LongHashSet(int expectedSize) {
+        int cap = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        table = new long[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) value = ZERO_STANDIN;
+        if ((size + 1) * 2 > table.length) grow();
+        int i = slot(value);
+        while (table[i] != EMPTY) {
+            if (table[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) value = ZERO_STANDIN;
+        int i = slot(value);
+        while (table[i] != EMPTY) {
+            if (table[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        mask = table.length - 1;
+        size = 0;
+        for (long v : old) {
+            if (v != EMPTY) add(v);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.localapp.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Orders a set of stops to minimize travel time while respecting each stop's start time.
+ * A stop's start time is treated as a soft time window: arriving early means waiting,
+ * arriving late is penalized. Routes are built by nearest insertion from several seed
+ * stops in parallel (fork-join), then improved with 2-opt and or-opt moves until no
+ * move helps or the compute deadline passes.
+ */
+public class RouteOptimizer {
+
+    /** Marker for a stop without a start time. */
+    public static final int NO_WINDOW = Integer.MIN_VALUE;
+
+    private static final int LATE_PENALTY = 10;
+    private static final int MAX_SEEDS = 8;
+    private static final int MAX_SEGMENT = 3;
+
+    public enum Mode {
+        DRIVE, WALK;
+
+        public static Mode from(String s) {
+            return s != null && s.equalsIgnoreCase("walk") ? WALK : DRIVE;
+        }
+
+        int minutes(double miles) {
+            return this == WALK ? DistanceUtil.estimateWalk(miles) : DistanceUtil.estimateDrive(miles);
+        }
+    }
+
+    /**
+     * Result of an optimization run. All arrays are indexed by position in the route.
+     */
+    public static final class Result {
+        public final int[] order;
+        public final int[] arrivalMin;
+        public final int[] travelMin;
+        public final double[] legMiles;
+        public final int totalTravelMin;
+        public final int totalLateMin;
+
+        Result(int[] order, int[] arrivalMin, int[] travelMin, double[] legMiles, int totalTravelMin, int totalLateMin) {
+            this.order = order;
+            this.arrivalMin = arrivalMin;
+            this.travelMin = travelMin;
+            this.legMiles = legMiles;
+            this.totalTravelMin = totalTravelMin;
+            this.totalLateMin = totalLateMin;
+        }
+    }
+
+    /**
+     * Computes a route over the given stops.
+     *
+     * @param lat Stop latitudes
+     * @param lon Stop longitudes
+     * @param windowMin Stop start times in minutes from the itinerary start, or {@link #NO_WINDOW}
+     * @param dwellMin Minutes spent at each stop
+     * @param mode Travel mode used to turn distances into minutes
+     * @param budgetMillis Compute deadline; the best route found so far is returned when it passes
+     * @return The ordered route with its schedule
+     */
+    public static Result optimize(double[] lat, double[] lon, int[] windowMin, int dwellMin, Mode mode, long budgetMillis) {
+        int n = lat.length;
+        if (lon.length != n || windowMin.length != n) throw new IllegalArgumentException("Stop arrays must have equal length");
+        if (n == 0) return new Result(new int[0], new int[0], new int[0], new double[0], 0, 0);
+
+        double[] miles = new double[n * n];
+        int[] minutes = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = DistanceUtil.haversine(lat[i], lon[i], lat[j], lon[j]);
+                int t = mode.minutes(d);
+                miles[i * n + j] = miles[j * n + i] = d;
+                minutes[i * n + j] = minutes[j * n + i] = t;
+            }
+        }
+
+        Problem p = new Problem(n, minutes, windowMin, dwellMin, System.nanoTime() + budgetMillis * 1_000_000L);
+        int[] seeds = seeds(windowMin);
+        int[] best = n <= 2 ? p.trivial() : ForkJoinPool.commonPool().invoke(new SeedTask(p, seeds, 0, seeds.length));
+        return p.schedule(best, miles);
+    }
+
+    /** Seeds are the stops with the earliest start times, since those usually lead the route. */
+    private static int[] seeds(int[] window) {
+        Integer[] idx = new Integer[window.length];
+        for (int i = 0; i < idx.length; i++) idx[i] = i;
+        Arrays.sort(idx, (a, b) -> Long.compare(key(window[a]), key(window[b])));
+        int k = Math.min(window.length, MAX_SEEDS);
+        int[] seeds = new int[k];
+        for (int i = 0; i < k; i++) seeds[i] = idx[i];
+        return seeds;
+    }
+
+    private static long key(int w) {
+        return w == NO_WINDOW ? Long.MAX_VALUE : w;
+    }
+
+    private static final class SeedTask extends RecursiveTask<int[]> {
+        private final Problem p;
+        private final int[] seeds;
+        private final int lo, hi;
+
+        SeedTask(Problem p, int[] seeds, int lo, int hi) {
+            this.p = p;
+            this.seeds = seeds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo == 1) return p.solve(seeds[lo]);
+            int mid = (lo + hi) >>> 1;
+            SeedTask left = new SeedTask(p, seeds, lo, mid);
+            left.fork();
+            int[] right = new SeedTask(p, seeds, mid, hi).compute();
+            int[] l = left.join();
+            return p.cost(l, l.length) <= p.cost(right, right.length) ? l : right;
+        }
+    }
+
+    private static final class Problem {
+        final int n;
+        final int[] minutes;
+        final int[] window;
+        final int dwell;
+        final long deadline;
+
+        Problem(int n, int[] minutes, int[] window, int dwell, long deadline) {
+            this.n = n;
+            this.minutes = minutes;
+            this.window = window;
+            this.dwell = dwell;
+            this.deadline = deadline;
+        }
+
+        boolean expired() {
+            return System.nanoTime() > deadline;
+        }
+
+        int[] trivial() {
+            int[] r = new int[n];
+            for (int i = 0; i < n; i++) r[i] = i;
+            if (n == 2 && cost(new int[]{1, 0}, 2) < cost(r, 2)) return new int[]{1, 0};
+            return r;
+        }
+
+        /** Travel minutes plus weighted lateness for the first {@code len} stops of {@code r}. */
+        int cost(int[] r, int len) {
+            return cost(r, len, Integer.MAX_VALUE);
+        }
+
+        /** Same as {@link #cost(int[], int)} but gives up once the partial cost reaches {@code bound}. */
+        int cost(int[] r, int len, int bound) {
+            int t = 0, travel = 0, late = 0, prev = -1;
+            for (int k = 0; k < len; k++) {
+                int s = r[k];
+                if (prev >= 0) {
+                    int tt = minutes[prev * n + s];
+                    travel += tt;
+                    t += tt;
+                }
+                int w = window[s];
+                if (w != NO_WINDOW) {
+                    if (t < w) t = w;
+                    else late += t - w;
+                }
+                t += dwell;
+                prev = s;
+                if (travel + LATE_PENALTY * late >= bound) return bound;
+            }
+            return travel + LATE_PENALTY * late;
+        }
+
+        int[] solve(int seed) {
+            int[] route = construct(seed);
+            improve(route, new int[n]);
+            return route;
+        }
+
+        /**
+         * Nearest insertion: repeatedly take the unrouted stop closest to the route and insert it where it costs least.
+         * Each insertion tries every position, so once the deadline passes the remaining stops are appended greedily.
+         */
+        int[] construct(int seed) {
+            int[] route = new int[n];
+            int[] scratch = new int[n];
+            boolean[] routed = new boolean[n];
+            int[] nearest = new int[n];
+            route[0] = seed;
+            routed[seed] = true;
+            for (int j = 0; j < n; j++) nearest[j] = minutes[seed * n + j];
+
+            for (int len = 1; len < n; len++) {
+                if (expired()) return appendNearest(route, routed, len);
+                int pick = -1;
+                for (int j = 0; j < n; j++) {
+                    if (!routed[j] && (pick < 0 || nearest[j] < nearest[pick])) pick = j;
+                }
+
+                int bestPos = len, bestCost = Integer.MAX_VALUE;
+                for (int pos = 0; pos <= len; pos++) {
+                    System.arraycopy(route, 0, scratch, 0, pos);
+                    scratch[pos] = pick;
+                    System.arraycopy(route, pos, scratch, pos + 1, len - pos);
+                    int c = cost(scratch, len + 1, bestCost);
+                    if (c < bestCost) {
+                        bestCost = c;
+                        bestPos = pos;
+                    }
+                }
+                System.arraycopy(route, bestPos, route, bestPos + 1, len - bestPos);
+                route[bestPos] = pick;
+                routed[pick] = true;
+                for (int j = 0; j < n; j++) {
+                    int d = minutes[pick * n + j];
+                    if (d < nearest[j]) nearest[j] = d;
+                }
+            }
+            return route;
+        }
+
+        /** Completes the first {@code len} stops of {@code route} by repeatedly visiting the closest unrouted stop next. */
+        private int[] appendNearest(int[] route, boolean[] routed, int len) {
+            for (; len < n; len++) {
+                int prev = route[len - 1], pick = -1;
+                for (int j = 0; j < n; j++) {
+                    if (!routed[j] && (pick < 0 || minutes[prev * n + j] < minutes[prev * n + pick])) pick = j;
+                }
+                route[len] = pick;
+                routed[pick] = true;
+            }
+            return route;
+        }
+
+        /** Alternates 2-opt and or-opt passes until neither improves the route or the deadline passes. */
+        void improve(int[] route, int[] scratch) {
+            int current = cost(route, n);
+            boolean improved = true;
+            while (improved && !expired()) {
+                improved = false;
+
+                for (int i = 0; i < n - 1; i++) {
+                    for (int k = i + 1; k < n; k++) {
+                        reverse(route, i, k);
+                        int c = cost(route, n, current);
+                        if (c < current) {
+                            current = c;
+                            improved = true;
+                        } else {
+                            reverse(route, i, k);
+                        }
+                    }
+                    if (expired()) return;
+                }
+
+                for (int len = 1; len <= MAX_SEGMENT && len < n; len++) {
+                    for (int i = 0; i + len <= n; i++) {
+                        for (int q = 0; q <= n - len; q++) {
+                            if (q == i) continue;
+                            moveSegment(route, scratch, i, len, q);
+                            int c = cost(scratch, n, current);
+                            if (c < current) {
+                                current = c;
+                                improved = true;
+                                System.arraycopy(scratch, 0, route, 0, n);
+                            }
+                        }
+                    }
+                    if (expired()) return;
+                }
+            }
+        }
+
+        /** Writes {@code route} into {@code out} with the segment [i, i+len) moved to position q of the remainder. */
+        private void moveSegment(int[] route, int[] out, int i, int len, int q) {
+            int o = 0;
+            for (int k = 0; k < n; k++) {
+                if (o == q) {
+                    System.arraycopy(route, i, out, o, len);
+                    o += len;
+                }
+                if (k >= i && k < i + len) continue;
+                out[o++] = route[k];
+            }
+            if (o == q) System.arraycopy(route, i, out, o, len);
+        }
+
+        private static void reverse(int[] r, int i, int k) {
+            while (i < k) {
+                int tmp = r[i];
+                r[i++] = r[k];
+                r[k--] = tmp;
+            }
+        }
+
+        Result schedule(int[] route, double[] miles) {
+            int[] arrival = new int[n];
+            int[] travel = new int[n];
+            double[] leg = new double[n];
+            int t = 0, totalTravel = 0, totalLate = 0, prev = -1;
+            for (int k = 0; k < n; k++) {
+                int s = route[k];
+                if (prev >= 0) {
+                    travel[k] = minutes[prev * n + s];
+                    leg[k] = miles[prev * n + s];
+                    totalTravel += travel[k];
+                    t += travel[k];
+                }
+                int w = window[s];
+                arrival[k] = t;
+                if (w != NO_WINDOW) {
+                    if (t < w) t = w;
+                    else totalLate += t - w;
+                }
+                t += dwell;
+                prev = s;
+            }
+            return new Result(route, arrival, travel, leg, totalTravel, totalLate);
+        }
+    }
+}
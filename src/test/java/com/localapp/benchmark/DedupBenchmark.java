@@ -0,0 +1,90 @@
+package com.localapp.benchmark;
+
+import com.localapp.util.EventDeduplicator;
+import com.localapp.util.ParseUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous string-key HashMap dedup with the fingerprint dedup, with and
+ * without the near-duplicate pass. Run through {@link #main} to include the GC profiler,
+ * which reports bytes allocated per operation alongside throughput.
+ * About a fifth of the generated events are exact or near copies of another event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DedupBenchmark {
+    private static final String[] WORDS = {"jazz", "night", "comedy", "show", "open", "mic", "karaoke", "trivia",
+            "dj", "set", "acoustic", "session", "rooftop", "party", "wine", "tasting", "film", "screening"};
+    private static final String[] VENUES = {"The Blue Note", "Comedy Cellar", "Brooklyn Bowl", "Webster Hall",
+            "Village Vanguard", "Elsewhere", "Baby's All Right", "Le Poisson Rouge"};
+
+    @Param({"200", "2000"})
+    public int events;
+
+    private List<Map<String, Object>> input;
+    private final EventDeduplicator exact = new EventDeduplicator(false, 1800, 0.15);
+    private final EventDeduplicator near = new EventDeduplicator(true, 1800, 0.15);
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        input = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            if (i > 0 && r.nextInt(5) == 0) {
+                Map<String, Object> copy = new HashMap<>(input.get(r.nextInt(i)));
+                if (r.nextBoolean()) copy.put("venue", copy.get("venue") + " NYC");
+                input.add(copy);
+                continue;
+            }
+            Map<String, Object> e = new HashMap<>();
+            e.put("id", String.valueOf(i));
+            e.put("name", WORDS[r.nextInt(WORDS.length)] + " " + WORDS[r.nextInt(WORDS.length)] + " " + i);
+            e.put("startDate", String.format("2026-10-19T%02d:%02d:00Z", 12 + r.nextInt(12), r.nextInt(4) * 15));
+            e.put("venue", VENUES[r.nextInt(VENUES.length)]);
+            e.put("latitude", 40.70 + r.nextDouble() * 0.1);
+            e.put("longitude", -74.0 + r.nextDouble() * 0.1);
+            input.add(e);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> legacyStringKey() {
+        Map<String, Map<String, Object>> unique = new HashMap<>();
+        for (Map<String, Object> e : input) {
+            String key = ParseUtil.str(e.get("name")) + "|" + ParseUtil.str(e.get("startDate")) + "|" + ParseUtil.str(e.get("venue"));
+            unique.putIfAbsent(key.toLowerCase(), e);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> fingerprintExact() {
+        return exact.dedupe(input);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> fingerprintWithNearDuplicates() {
+        // The near pass fills missing fields into kept events, so work on shallow copies
+        List<Map<String, Object>> copies = new ArrayList<>(input.size());
+        for (Map<String, Object> e : input) copies.add(new HashMap<>(e));
+        return near.dedupe(copies);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DedupBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
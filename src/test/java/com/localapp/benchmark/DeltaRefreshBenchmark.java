@@ -0,0 +1,123 @@
+package com.localapp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.localapp.service.source.EventDelta;
+import com.localapp.service.source.EventSetVersion;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of refreshing one cached city/day result: a full reload (download and parse
+ * everything), a hash-diff refresh (full download, only changed events replaced) and a
+ * changed-since delta refresh. Payloads are Eventbrite-shaped JSON; bytes per refresh
+ * are printed at setup, CPU per refresh is the reported time (single thread, no I/O).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaRefreshBenchmark {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Param({"1000", "5000"})
+    public int events;
+
+    @Param({"1", "10"})
+    public int changedPercent;
+
+    private byte[] fullPayload, changedPayload, deltaPayload;
+    private EventSetVersion current;
+
+    @Setup
+    public void setup() throws IOException {
+        Random r = new Random(42);
+        ArrayNode before = JSON.createArrayNode(), after = JSON.createArrayNode(), changed = JSON.createArrayNode();
+        for (int i = 0; i < events; i++) {
+            ObjectNode ev = event(r, i);
+            before.add(ev);
+            if (r.nextInt(100) < changedPercent) {
+                ObjectNode edited = ev.deepCopy();
+                edited.putObject("name").put("text", "Updated " + i);
+                after.add(edited);
+                changed.add(edited);
+            } else {
+                after.add(ev);
+            }
+        }
+        fullPayload = JSON.writeValueAsBytes(JSON.createObjectNode().set("events", before));
+        changedPayload = JSON.writeValueAsBytes(JSON.createObjectNode().set("events", after));
+        deltaPayload = JSON.writeValueAsBytes(JSON.createObjectNode().set("events", changed));
+        current = EventSetVersion.empty().apply(EventDelta.snapshot(parse(fullPayload), fullPayload.length), Instant.now());
+        System.out.printf("%nbytes per refresh: full %d, delta %d (%d changed events)%n",
+                changedPayload.length, deltaPayload.length, changed.size());
+    }
+
+    private static ObjectNode event(Random r, int i) {
+        ObjectNode ev = JSON.createObjectNode();
+        ev.put("id", Integer.toString(700000 + i));
+        ev.putObject("name").put("text", "Event " + i + " at Venue " + r.nextInt(200));
+        ev.put("url", "https://www.eventbrite.com/e/" + (700000 + i));
+        ev.putObject("start").put("utc", "2026-10-19T" + (18 + r.nextInt(5)) + ":00:00Z");
+        ev.putObject("logo").put("url", "https://img.evbuc.com/" + (700000 + i) + ".jpg");
+        ObjectNode venue = ev.putObject("venue");
+        venue.put("name", "Venue " + r.nextInt(200));
+        venue.putObject("address").put("city", "New York")
+                .put("latitude", Double.toString(40.7 + r.nextDouble() * 0.1))
+                .put("longitude", Double.toString(-74.0 + r.nextDouble() * 0.1));
+        return ev;
+    }
+
+    /** Same tree-to-map conversion as EventbriteSource. */
+    private static List<Map<String, Object>> parse(byte[] payload) throws IOException {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (JsonNode ev : JSON.readTree(payload).path("events")) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", ev.path("id").asText(null));
+            m.put("name", ev.path("name").path("text").asText(null));
+            m.put("url", ev.path("url").asText(null));
+            m.put("startDate", ev.path("start").path("utc").asText(null));
+            m.put("image", ev.path("logo").path("url").asText(null));
+            JsonNode v = ev.path("venue");
+            m.put("venue", v.path("name").asText(null));
+            JsonNode a = v.path("address");
+            m.put("city", a.path("city").asText(null));
+            m.put("latitude", Double.parseDouble(a.path("latitude").asText()));
+            m.put("longitude", Double.parseDouble(a.path("longitude").asText()));
+            out.add(m);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> fullReload() throws IOException {
+        return parse(changedPayload);
+    }
+
+    @Benchmark
+    public EventSetVersion hashDiffRefresh() throws IOException {
+        return current.apply(EventDelta.snapshot(parse(changedPayload), changedPayload.length), Instant.now());
+    }
+
+    @Benchmark
+    public EventSetVersion deltaRefresh() throws IOException {
+        return current.apply(new EventDelta(parse(deltaPayload), Set.of(), false, deltaPayload.length), Instant.now());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeltaRefreshBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.localapp.benchmark;
+
+import com.localapp.util.DistanceMatrix;
+import com.localapp.util.DistanceUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-pair {@link DistanceUtil#haversine} with the scalar and Vector API kernels of
+ * {@link DistanceMatrix} for typical map and itinerary matrix shapes. Build with {@code -Pvector};
+ * without the kernel class the vector case measures the scalar fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DistanceMatrixBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int origins;
+
+    @Param({"200", "1000", "5000"})
+    public int events;
+
+    private double[] originLat, originLon, eventLat, eventLon;
+    private DistanceMatrix.Points originPoints, eventPoints;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        originLat = new double[origins];
+        originLon = new double[origins];
+        eventLat = new double[events];
+        eventLon = new double[events];
+        for (int i = 0; i < origins; i++) {
+            originLat[i] = 40.70 + r.nextDouble() * 0.1;
+            originLon[i] = -74.00 + r.nextDouble() * 0.1;
+        }
+        for (int i = 0; i < events; i++) {
+            eventLat[i] = 40.60 + r.nextDouble() * 0.3;
+            eventLon[i] = -74.10 + r.nextDouble() * 0.3;
+        }
+        originPoints = new DistanceMatrix.Points(originLat, originLon);
+        eventPoints = new DistanceMatrix.Points(eventLat, eventLon);
+    }
+
+    @Benchmark
+    public double[] perPairHaversine() {
+        double[] out = new double[origins * events];
+        for (int i = 0; i < origins; i++) {
+            for (int j = 0; j < events; j++) {
+                out[i * events + j] = DistanceUtil.haversine(originLat[i], originLon[i], eventLat[j], eventLon[j]);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] scalarKernel() {
+        return DistanceMatrix.compute(originPoints, eventPoints, DistanceMatrix.Kernel.SCALAR);
+    }
+
+    @Benchmark
+    public double[] vectorKernel() {
+        return DistanceMatrix.compute(originPoints, eventPoints, DistanceMatrix.Kernel.VECTOR);
+    }
+
+    @Benchmark
+    public double[] vectorIncludingConversion() {
+        return DistanceMatrix.compute(originLat, originLon, eventLat, eventLon);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DistanceMatrixBenchmark.class.getSimpleName()).build()).run();
+    }
+}
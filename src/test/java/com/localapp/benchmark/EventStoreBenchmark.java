@@ -0,0 +1,127 @@
+package com.localapp.benchmark;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.service.source.EventAggregator;
+import com.localapp.service.source.EventQuery;
+import com.localapp.service.source.EventSource;
+import com.localapp.service.store.CityEventStore;
+import com.localapp.util.EventDeduplicator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answering a "tonight" window (8 hours, crossing midnight) from {@link CityEventStore}
+ * day segments versus filtering cached event maps by parsing each start time. Heap
+ * footprint per 10k events of both representations is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventStoreBenchmark {
+    private static final LocalDate DAY = LocalDate.parse("2026-10-19");
+
+    @Param({"2000", "10000"})
+    public int eventsPerDay;
+
+    private CityEventStore store;
+    private List<Map<String, Object>> maps;
+    private Instant from, to;
+
+    private static final class GeneratedSource implements EventSource {
+        final int perDay;
+
+        GeneratedSource(int perDay) {
+            this.perDay = perDay;
+        }
+
+        @Override
+        public String getName() { return "generated"; }
+
+        @Override
+        public long getTimeoutMillis() { return 60_000; }
+
+        @Override
+        public List<Map<String, Object>> fetch(EventQuery query) {
+            return generate(query.start().substring(0, 10), perDay);
+        }
+    }
+
+    static List<Map<String, Object>> generate(String day, int n) {
+        Random r = new Random(day.hashCode());
+        List<Map<String, Object>> events = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> e = new HashMap<>();
+            e.put("id", day + "-" + i);
+            e.put("name", "Event " + i + " at venue " + r.nextInt(400));
+            e.put("url", "https://www.eventbrite.com/e/" + (700000000L + day.hashCode() % 1000 * 100000L + i));
+            e.put("startDate", String.format("%sT%02d:%02d:00Z", day, r.nextInt(24), r.nextInt(4) * 15));
+            e.put("image", "https://img.evbuc.com/" + r.nextInt(1_000_000) + ".jpg");
+            e.put("venue", "Venue " + r.nextInt(400));
+            e.put("city", "New York");
+            e.put("latitude", 40.6 + r.nextDouble() * 0.3);
+            e.put("longitude", -74.1 + r.nextDouble() * 0.3);
+            e.put("source", "generated");
+            events.add(e);
+        }
+        return events;
+    }
+
+    @Setup
+    public void setup() {
+        EventAggregator agg = new EventAggregator(List.of(new GeneratedSource(eventsPerDay)),
+                EventCacheFactory.local(Duration.ofHours(1)), new EventDeduplicator(false, 1800, 0.15));
+
+        store = new CityEventStore(agg, 3600, 100);
+        store.day("New York", null, DAY);
+        store.day("New York", null, DAY.plusDays(1));
+        Map<String, Object> stats = store.stats();
+
+        long before = usedHeap();
+        maps = new ArrayList<>(generate(DAY.toString(), eventsPerDay));
+        maps.addAll(generate(DAY.plusDays(1).toString(), eventsPerDay));
+        long mapBytes = usedHeap() - before;
+
+        System.out.printf("%nbytes per 10k events: store %d (estimate), maps %d (measured)%n",
+                stats.get("bytesPer10kEvents"), mapBytes * 10_000 / maps.size());
+
+        from = Instant.parse(DAY + "T19:00:00Z");
+        to = from.plusSeconds(8 * 3600);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> storeWindow() {
+        return store.window("New York", null, from, to);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> scanMaps() {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> e : maps) {
+            Instant start = Instant.parse((String) e.get("startDate"));
+            if (!start.isBefore(from) && !start.isAfter(to)) out.add(new HashMap<>(e));
+        }
+        out.sort(Comparator.comparing(e -> (String) e.get("startDate")));
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.localapp.benchmark;
+
+import com.localapp.util.RouteOptimizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures itinerary optimization latency for growing stop counts.
+ * Stops are spread over a Manhattan-sized box with start times across one evening;
+ * a quarter of the stops have no start time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteOptimizerBenchmark {
+
+    @Param({"10", "25", "50", "75"})
+    public int stops;
+
+    @Param({"drive", "walk"})
+    public String mode;
+
+    private double[] lat;
+    private double[] lon;
+    private int[] window;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        lat = new double[stops];
+        lon = new double[stops];
+        window = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            lat[i] = 40.70 + r.nextDouble() * 0.12;
+            lon[i] = -74.02 + r.nextDouble() * 0.08;
+            window[i] = r.nextInt(4) == 0 ? RouteOptimizer.NO_WINDOW : r.nextInt(8 * 60);
+        }
+    }
+
+    @Benchmark
+    public RouteOptimizer.Result optimize() {
+        return RouteOptimizer.optimize(lat, lon, window, 30, RouteOptimizer.Mode.from(mode), 100);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RouteOptimizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.localapp.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures cold start of the packaged application: time from process launch to the first
+ * successful response from {@code POST /api/events/distances}, and resident set size at that
+ * point. Compares the regular executable jar with the fast-start build (Spring AOT, lazy
+ * initialization, trimmed auto-configuration and the AppCDS archive).
+ * <p>
+ * Build both first with {@code mvn -Pfast-start package}, then run
+ * {@code StartupBenchmark [targetDir] [runs]}. RSS is read from /proc and needs Linux.
+ */
+public class StartupBenchmark {
+    /** Public and answered without any upstream call, so it measures the app alone */
+    private static final String PROBE_PATH = "/api/events/distances";
+    private static final byte[] PROBE_BODY =
+            "{\"originLat\":[40.7],\"originLon\":[-74.0],\"eventLat\":[40.8],\"eventLon\":[-73.9]}".getBytes(StandardCharsets.UTF_8);
+    private static final long START_TIMEOUT_MILLIS = 120_000;
+
+    private record Sample(long firstRequestMillis, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String jar = "localGeoApp-1.0-SNAPSHOT";
+
+        Path fatJar = target.resolve(jar + ".jar");
+        Path fastDir = target.resolve("fast-start");
+        Path appJar = fastDir.resolve(jar + "-app.jar");
+        if (!Files.exists(fatJar) || !Files.exists(appJar)) {
+            System.err.println("Missing " + fatJar + " or " + appJar + "; run mvn -Pfast-start package first");
+            System.exit(1);
+        }
+
+        List<String> baseline = List.of("-jar", fatJar.toString());
+        List<String> fastStart = new ArrayList<>(List.of("-Dspring.aot.enabled=true",
+                "-jar", appJar.toString(), "--spring.profiles.active=fast-start"));
+        List<String> fastStartCds = new ArrayList<>(fastStart);
+        fastStartCds.add(0, "-XX:SharedArchiveFile=" + fastDir.resolve("app.jsa"));
+
+        System.out.printf("%-22s %14s %14s %14s %12s%n", "mode", "ttfr p50 (ms)", "ttfr min (ms)", "ttfr max (ms)", "rss p50 (MB)");
+        report("executable jar", measure(baseline, target.toFile(), runs));
+        report("fast-start", measure(fastStart, fastDir.toFile(), runs));
+        report("fast-start + AppCDS", measure(fastStartCds, fastDir.toFile(), runs));
+    }
+
+    private static Sample[] measure(List<String> jvmArgs, File workDir, int runs) throws Exception {
+        // One discarded run warms the OS page cache so every mode starts from the same state
+        Sample[] samples = new Sample[runs];
+        for (int i = -1; i < runs; i++) {
+            Sample s = launch(jvmArgs, workDir);
+            if (i >= 0) samples[i] = s;
+        }
+        return samples;
+    }
+
+    private static Sample launch(List<String> jvmArgs, File workDir) throws Exception {
+        int port = freePort();
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(jvmArgs);
+        cmd.add("--server.port=" + port);
+
+        long t0 = System.nanoTime();
+        Process p = new ProcessBuilder(cmd).directory(workDir)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            URL probe = new URL("http://localhost:" + port + PROBE_PATH);
+            while (!respondsOk(probe)) {
+                if (!p.isAlive()) throw new IllegalStateException("Application exited with " + p.exitValue());
+                if ((System.nanoTime() - t0) / 1_000_000 > START_TIMEOUT_MILLIS) throw new IllegalStateException("Startup timed out");
+                Thread.sleep(5);
+            }
+            long ttfr = (System.nanoTime() - t0) / 1_000_000;
+            return new Sample(ttfr, rssKb(p.pid()));
+        } finally {
+            p.destroy();
+            p.waitFor();
+        }
+    }
+
+    private static boolean respondsOk(URL url) {
+        try {
+            HttpURLConnection c = (HttpURLConnection) url.openConnection();
+            c.setConnectTimeout(50);
+            c.setReadTimeout(5000);
+            c.setRequestMethod("POST");
+            c.setRequestProperty("Content-Type", "application/json");
+            c.setDoOutput(true);
+            try {
+                try (OutputStream out = c.getOutputStream()) {
+                    out.write(PROBE_BODY);
+                }
+                return c.getResponseCode() == 200;
+            } finally {
+                c.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D", ""));
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    private static void report(String mode, Sample[] samples) {
+        long[] ttfr = Arrays.stream(samples).mapToLong(Sample::firstRequestMillis).sorted().toArray();
+        long[] rss = Arrays.stream(samples).mapToLong(Sample::rssKb).sorted().toArray();
+        System.out.printf("%-22s %14d %14d %14d %12.1f%n", mode, ttfr[ttfr.length / 2], ttfr[0], ttfr[ttfr.length - 1],
+                rss[rss.length / 2] / 1024.0);
+    }
+}
@@ -0,0 +1,115 @@
+package com.localapp.benchmark;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.service.source.EventAggregator;
+import com.localapp.service.source.EventQuery;
+import com.localapp.service.source.EventSource;
+import com.localapp.service.store.CityEventStore;
+import com.localapp.util.EventDeduplicator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a clustered {@code /api/events/viewport} query for a 1280 x 800 px map
+ * centred on Manhattan at several zoom levels, against returning the whole day as the
+ * map did before. Events are spread around venue hot spots like a real city listing;
+ * cluster counts per zoom are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewportBenchmark {
+    private static final LocalDate DAY = LocalDate.parse("2026-10-19");
+    private static final double CENTER_LAT = 40.7484, CENTER_LON = -73.9857;
+    private static final int WIDTH_PX = 1280, HEIGHT_PX = 800;
+
+    @Param({"10000"})
+    public int events;
+
+    @Param({"10", "12", "14", "16"})
+    public int zoom;
+
+    private CityEventStore store;
+    private double south, west, north, east;
+
+    private static final class CitySource implements EventSource {
+        final int n;
+
+        CitySource(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public String getName() { return "generated"; }
+
+        @Override
+        public long getTimeoutMillis() { return 60_000; }
+
+        @Override
+        public List<Map<String, Object>> fetch(EventQuery query) {
+            Random r = new Random(7);
+            double[][] venues = new double[800][];
+            for (int v = 0; v < venues.length; v++) {
+                venues[v] = new double[]{CENTER_LAT + r.nextGaussian() * 0.06, CENTER_LON + r.nextGaussian() * 0.06};
+            }
+            List<Map<String, Object>> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                double[] v = venues[r.nextInt(venues.length)];
+                Map<String, Object> e = new HashMap<>();
+                e.put("id", "ev-" + i);
+                e.put("name", "Event " + i);
+                e.put("url", "https://www.eventbrite.com/e/" + (700000000L + i));
+                e.put("startDate", String.format("%sT%02d:%02d:00Z", DAY, r.nextInt(24), r.nextInt(4) * 15));
+                e.put("venue", "Venue " + i % 800);
+                e.put("city", "New York");
+                e.put("latitude", v[0] + r.nextGaussian() * 0.0005);
+                e.put("longitude", v[1] + r.nextGaussian() * 0.0005);
+                out.add(e);
+            }
+            return out;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        EventAggregator agg = new EventAggregator(List.of(new CitySource(events)),
+                EventCacheFactory.local(Duration.ofHours(1)), new EventDeduplicator(false, 1800, 0.15));
+        store = new CityEventStore(agg, 3600, 100);
+
+        double degPerPx = 360.0 / (256 * Math.pow(2, zoom));
+        double halfLon = degPerPx * WIDTH_PX / 2;
+        double halfLat = degPerPx * HEIGHT_PX / 2 * Math.cos(Math.toRadians(CENTER_LAT));
+        south = CENTER_LAT - halfLat;
+        north = CENTER_LAT + halfLat;
+        west = CENTER_LON - halfLon;
+        east = CENTER_LON + halfLon;
+
+        Map<String, Object> view = viewport();
+        System.out.printf("%nzoom %d: %d clusters covering %d of %d events%n",
+                zoom, ((List<?>) view.get("clusters")).size(), view.get("total"), allEvents().size());
+    }
+
+    @Benchmark
+    public Map<String, Object> viewport() {
+        return store.viewport("New York", DAY, south, west, north, east, zoom);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> allEvents() {
+        return store.day("New York", null, DAY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ViewportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
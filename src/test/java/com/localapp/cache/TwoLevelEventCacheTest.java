@@ -0,0 +1,304 @@
+package com.localapp.cache;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link TwoLevelEventCache} with two nodes sharing an in-process RESP server.
+ */
+public class TwoLevelEventCacheTest extends TestCase {
+
+    /** Just enough of a Redis server for GET, SET PX NX, DEL, the lease-release EVAL, PUBLISH and SUBSCRIBE; TTLs are ignored. */
+    private static final class FakeRedis implements Closeable {
+        final ServerSocket server;
+        final Map<String, byte[]> data = new ConcurrentHashMap<>();
+        final Map<String, List<OutputStream>> subscribers = new ConcurrentHashMap<>();
+
+        FakeRedis() throws IOException {
+            server = new ServerSocket(0);
+            Thread t = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try {
+                        Socket s = server.accept();
+                        Thread h = new Thread(() -> serve(s));
+                        h.setDaemon(true);
+                        h.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void serve(Socket s) {
+            try (s) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                OutputStream out = s.getOutputStream();
+                while (true) {
+                    List<byte[]> cmd = readCommand(in);
+                    if (cmd == null) return;
+                    String name = str(cmd.get(0)).toUpperCase();
+                    String key = cmd.size() > 1 ? str(cmd.get(1)) : null;
+                    switch (name) {
+                        case "GET" -> bulk(out, data.get(key));
+                        case "SET" -> {
+                            boolean nx = cmd.stream().anyMatch(a -> str(a).equalsIgnoreCase("NX"));
+                            if (nx && data.putIfAbsent(key, cmd.get(2)) != null) {
+                                bulk(out, null);
+                            } else {
+                                if (!nx) data.put(key, cmd.get(2));
+                                write(out, "+OK\r\n");
+                            }
+                        }
+                        case "DEL" -> write(out, ":" + (data.remove(key) != null ? 1 : 0) + "\r\n");
+                        case "EVAL" -> {
+                            if (!RespClient.DELETE_IF_EQUALS.equals(key)) {
+                                write(out, "-NOSCRIPT unknown script\r\n");
+                                continue;
+                            }
+                            // Atomic like a real script: the compare and the delete happen under the map's bin lock
+                            boolean[] deleted = new boolean[1];
+                            data.computeIfPresent(str(cmd.get(3)), (k, v) -> {
+                                deleted[0] = Arrays.equals(v, cmd.get(4));
+                                return deleted[0] ? null : v;
+                            });
+                            write(out, ":" + (deleted[0] ? 1 : 0) + "\r\n");
+                        }
+                        case "PUBLISH" -> {
+                            List<OutputStream> subs = subscribers.getOrDefault(key, List.of());
+                            for (OutputStream sub : subs) {
+                                synchronized (sub) {
+                                    sub.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+                                    bulk(sub, "message".getBytes(StandardCharsets.UTF_8));
+                                    bulk(sub, cmd.get(1));
+                                    bulk(sub, cmd.get(2));
+                                }
+                            }
+                            write(out, ":" + subs.size() + "\r\n");
+                        }
+                        case "SUBSCRIBE" -> {
+                            synchronized (out) {
+                                out.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+                                bulk(out, "subscribe".getBytes(StandardCharsets.UTF_8));
+                                bulk(out, cmd.get(1));
+                                write(out, ":1\r\n");
+                            }
+                            subscribers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(out);
+                        }
+                        default -> write(out, "-ERR unknown command\r\n");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static List<byte[]> readCommand(DataInputStream in) throws IOException {
+            int type = in.read();
+            if (type < 0) return null;
+            int n = Integer.parseInt(line(in));
+            List<byte[]> args = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                in.read();
+                byte[] b = new byte[Integer.parseInt(line(in))];
+                in.readFully(b);
+                line(in);
+                args.add(b);
+            }
+            return args;
+        }
+
+        private static String line(DataInputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c < 0) throw new EOFException();
+                sb.append((char) c);
+            }
+            in.read();
+            return sb.toString();
+        }
+
+        private static void bulk(OutputStream out, byte[] b) throws IOException {
+            if (b == null) {
+                write(out, "$-1\r\n");
+                return;
+            }
+            out.write(("$" + b.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(b);
+            write(out, "\r\n");
+        }
+
+        private static void write(OutputStream out, String s) throws IOException {
+            out.write(s.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private static String str(byte[] b) {
+            return new String(b, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    private static List<Map<String, Object>> events(String name) {
+        Map<String, Object> e = new HashMap<>();
+        e.put("id", "eb-1");
+        e.put("name", name);
+        e.put("latitude", 40.73);
+        e.put("longitude", -73.99);
+        e.put("ticketsLeft", 12);
+        e.put("free", false);
+        e.put("image", null);
+        return new ArrayList<>(List.of(e));
+    }
+
+    private static EventCacheFactory node(FakeRedis redis) {
+        return new EventCacheFactory(Duration.ofSeconds(60), Duration.ofSeconds(300), 2000,
+                new RespClient("localhost", redis.port(), 500, 4));
+    }
+
+    public void testCodecRoundTrip() {
+        List<Map<String, Object>> in = events("Jazz Night");
+        in.get(0).put("startDate", "2026-10-19T20:00:00Z");
+        in.get(0).put("capacity", 250L);
+        assertEquals(in, EventCodec.decode(EventCodec.encode(in)));
+    }
+
+    public void testSecondNodeIsServedFromSharedTier() throws Exception {
+        try (FakeRedis redis = new FakeRedis(); EventCacheFactory a = node(redis); EventCacheFactory b = node(redis)) {
+            AtomicInteger loads = new AtomicInteger();
+            Callable<List<Map<String, Object>>> loader = () -> {
+                loads.incrementAndGet();
+                return events("Jazz Night");
+            };
+            List<Map<String, Object>> first = a.create("eventbrite").get("nyc", loader);
+            List<Map<String, Object>> second = b.create("eventbrite").get("nyc", loader);
+
+            assertEquals(1, loads.get());
+            assertEquals(first, second);
+        }
+    }
+
+    public void testConcurrentMissesAcrossNodesLoadOnce() throws Exception {
+        try (FakeRedis redis = new FakeRedis(); EventCacheFactory a = node(redis); EventCacheFactory b = node(redis)) {
+            TwoLevelEventCache ca = a.create("eventbrite");
+            TwoLevelEventCache cb = b.create("eventbrite");
+            AtomicInteger loads = new AtomicInteger();
+            Callable<List<Map<String, Object>>> loader = () -> {
+                loads.incrementAndGet();
+                Thread.sleep(200);
+                return events("Jazz Night");
+            };
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<List<Map<String, Object>>>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    TwoLevelEventCache c = i % 2 == 0 ? ca : cb;
+                    results.add(pool.submit(() -> c.get("nyc", loader)));
+                }
+                for (Future<List<Map<String, Object>>> f : results) assertEquals("Jazz Night", f.get().get(0).get("name"));
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals(1, loads.get());
+        }
+    }
+
+    public void testInvalidationReachesOtherNode() throws Exception {
+        try (FakeRedis redis = new FakeRedis(); EventCacheFactory a = node(redis); EventCacheFactory b = node(redis)) {
+            TwoLevelEventCache ca = a.create("eventbrite");
+            TwoLevelEventCache cb = b.create("eventbrite");
+            waitFor(() -> redis.subscribers.getOrDefault("localgeoapp:events:invalidate", List.of()).size() == 2);
+            cb.get("nyc", () -> events("Jazz Night"));
+            assertNotNull(cb.getIfPresent("nyc"));
+
+            ca.invalidate("nyc");
+
+            waitFor(() -> cb.getIfPresent("nyc") == null);
+            assertEquals("Blues Night", cb.get("nyc", () -> events("Blues Night")).get(0).get("name"));
+        }
+    }
+
+    public void testWaitOnAnotherNodesLeaseIsBoundedByTheCaller() throws Exception {
+        try (FakeRedis redis = new FakeRedis(); EventCacheFactory a = node(redis);
+             RespClient other = new RespClient("localhost", redis.port(), 500, 4)) {
+            // Another node holds the lease for the full 2 s but never publishes a result
+            assertTrue(other.setIfAbsent("localgeoapp:events:eventbrite:nyc:lease", "stalled-node", 2000));
+            AtomicInteger loads = new AtomicInteger();
+
+            long t0 = System.nanoTime();
+            List<Map<String, Object>> value = a.create("eventbrite").get("nyc", () -> {
+                loads.incrementAndGet();
+                return events("Jazz Night");
+            }, 200);
+            long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+            assertEquals("Jazz Night", value.get(0).get("name"));
+            assertEquals(1, loads.get());
+            assertTrue("waited " + elapsedMs + " ms", elapsedMs >= 200 && elapsedMs < 1500);
+        }
+    }
+
+    public void testLeaseReleaseLeavesALeaseReacquiredElsewhere() throws Exception {
+        try (FakeRedis redis = new FakeRedis(); RespClient client = new RespClient("localhost", redis.port(), 500, 4)) {
+            // Our lease expired and another node now holds it under its own token
+            assertTrue(client.setIfAbsent("nyc:lease", "theirs", 2000));
+
+            assertFalse(client.deleteIfEquals("nyc:lease", "ours"));
+            assertEquals("theirs", new String(client.get("nyc:lease"), StandardCharsets.UTF_8));
+
+            assertTrue(client.deleteIfEquals("nyc:lease", "theirs"));
+            assertNull(client.get("nyc:lease"));
+            assertFalse(client.deleteIfEquals("nyc:lease", "theirs"));
+        }
+    }
+
+    public void testFallsBackToLocalLoadWhenRemoteIsDown() throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        try (EventCacheFactory f = new EventCacheFactory(Duration.ofSeconds(60), Duration.ofSeconds(300), 2000,
+                new RespClient("localhost", port, 200, 4))) {
+            TwoLevelEventCache c = f.create("eventbrite");
+            AtomicInteger loads = new AtomicInteger();
+            long t0 = System.nanoTime();
+            c.get("nyc", () -> {
+                loads.incrementAndGet();
+                return events("Jazz Night");
+            });
+            c.get("nyc", () -> {
+                loads.incrementAndGet();
+                return events("Jazz Night");
+            });
+            assertEquals(1, loads.get());
+            assertTrue((System.nanoTime() - t0) / 1_000_000 < 1000);
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Condition not met within 2s");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.localapp.config;
+
+import com.localapp.limit.Priority;
+import junit.framework.TestCase;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tests for the overload mapping in {@link GlobalExceptionHandler} and the request classes of
+ * {@link ConcurrencyLimitFilter}.
+ */
+public class GlobalExceptionHandlerTest extends TestCase {
+    private final ExceptionHandlerMethodResolver resolver = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    public void testOnlyUpstreamTimeoutsCountAsOverload() {
+        assertTrue(GlobalExceptionHandler.isTimeout(new ResourceAccessException("read", new SocketTimeoutException("Read timed out"))));
+        assertTrue(GlobalExceptionHandler.isTimeout(new ResourceAccessException("read", new HttpTimeoutException("request timed out"))));
+        assertFalse(GlobalExceptionHandler.isTimeout(new ResourceAccessException("connect", new ConnectException("Connection refused"))));
+        assertFalse(GlobalExceptionHandler.isTimeout(new ResourceAccessException("connect", new HttpConnectTimeoutException("connect timed out"))));
+        assertFalse(GlobalExceptionHandler.isTimeout(new ResourceAccessException("dns", new UnknownHostException("api.example"))));
+    }
+
+    public void testHandlerSelection() {
+        assertEquals("handleOverload", resolver.resolveMethodByThrowable(new TimeoutException()).getName());
+        assertEquals("handleOverload", resolver.resolveMethodByThrowable(new RejectedExecutionException()).getName());
+        assertEquals("handleUpstreamUnreachable",
+                resolver.resolveMethodByThrowable(new ResourceAccessException("connect", new ConnectException())).getName());
+    }
+
+    public void testComputeRoutesAreClassifiedWithSearches() {
+        assertEquals(Priority.SEARCH, ConcurrencyLimitFilter.classify("POST", "/api/itinerary/optimize"));
+        assertEquals(Priority.SEARCH, ConcurrencyLimitFilter.classify("POST", "/api/events/distances"));
+        assertEquals(Priority.READ, ConcurrencyLimitFilter.classify("GET", "/api/events/tonight"));
+    }
+}
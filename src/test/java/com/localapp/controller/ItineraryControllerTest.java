@@ -0,0 +1,128 @@
+package com.localapp.controller;
+
+import com.localapp.config.GlobalExceptionHandler;
+import com.localapp.model.entity.AiItinerary;
+import com.localapp.repository.AiItineraryRepository;
+import com.localapp.service.AiItineraryService;
+import com.localapp.service.AppConfigService;
+import com.localapp.service.ItineraryService;
+import com.localapp.service.LlmClient;
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tests for {@link ItineraryController} AI generation against a local stub LLM server.
+ */
+public class ItineraryControllerTest extends TestCase {
+    private HttpServer server;
+    private File keys;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean hang;
+
+    /** Stand-in for the DynamoDB table, keyed by user and content hash. */
+    private static final class InMemoryRepository extends AiItineraryRepository {
+        final List<AiItinerary> saved = Collections.synchronizedList(new ArrayList<>());
+
+        InMemoryRepository() {
+            super(null);
+        }
+
+        @Override
+        public AiItinerary findByContentHash(String userId, String contentHash) {
+            synchronized (saved) {
+                return saved.stream()
+                        .filter(i -> i.getUserId().equals(userId) && i.getContentHash().equals(contentHash))
+                        .findFirst()
+                        .orElse(null);
+            }
+        }
+
+        @Override
+        public void save(AiItinerary itinerary) {
+            saved.add(itinerary);
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (hang) release.await(10, TimeUnit.SECONDS);
+                String data = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Museum, then dinner.\"}]}}]}";
+                out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        keys = File.createTempFile("appconfig", ".json");
+        Files.writeString(keys.toPath(), "{\"GEMINI_API_KEY\":\"stub-key\"}");
+    }
+
+    @Override
+    protected void tearDown() {
+        release.countDown();
+        server.stop(0);
+        keys.delete();
+    }
+
+    private ItineraryController controller(AiItineraryRepository repository, long timeoutSeconds) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta/models/test:generateContent";
+        LlmClient llm = new LlmClient(new AppConfigService(null, "us-east-2", keys.getPath()),
+                "gemini", url, "test", 1000, 2000);
+        AiItineraryService ai = new AiItineraryService(llm, new ItineraryService(), 10_000, 256, timeoutSeconds, 4);
+        return new ItineraryController(new ItineraryService(), ai, repository);
+    }
+
+    private static List<Map<String, Object>> events() {
+        Map<String, Object> e = new HashMap<>();
+        e.put("id", "eb-1");
+        e.put("name", "Jazz Night");
+        e.put("venue", "Blue Note");
+        e.put("startDate", "2026-10-19T19:00:00Z");
+        return new ArrayList<>(List.of(e));
+    }
+
+    public void testFailedGenerationSurfacesItsCauseToTheExceptionHandler() throws Exception {
+        hang = true;
+        InMemoryRepository repository = new InMemoryRepository();
+        try {
+            controller(repository, 1).generate(events(), "u1");
+            fail("Expected the generation to time out");
+        } catch (TimeoutException e) {
+            // Mapped to 503 with Retry-After rather than the generic 500 handler
+            assertEquals("handleOverload",
+                    new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class).resolveMethodByThrowable(e).getName());
+        }
+        assertTrue(repository.saved.isEmpty());
+    }
+
+    public void testRepeatedRequestReusesSavedItinerary() throws Exception {
+        InMemoryRepository repository = new InMemoryRepository();
+        ItineraryController controller = controller(repository, 5);
+
+        AiItinerary first = controller.generate(events(), "u1").getBody();
+        AiItinerary second = controller.generate(events(), "u1").getBody();
+        AiItinerary other = controller.generate(events(), "u2").getBody();
+
+        assertEquals("Museum, then dinner.", first.getContent());
+        assertEquals(first.getItineraryId(), second.getItineraryId());
+        assertFalse(first.getItineraryId().equals(other.getItineraryId()));
+        assertEquals(2, repository.saved.size());
+    }
+}
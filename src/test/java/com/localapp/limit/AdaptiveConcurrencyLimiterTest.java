@@ -0,0 +1,117 @@
+package com.localapp.limit;
+
+import junit.framework.TestCase;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link AdaptiveConcurrencyLimiter}. Windows are sample-count based (zero
+ * duration) so the tests do not depend on wall-clock time.
+ */
+public class AdaptiveConcurrencyLimiterTest extends TestCase {
+    private static final double[] SHARES = {1.0, 0.8, 0.5};
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial) {
+        return new AdaptiveConcurrencyLimiter(initial, 4, 200, 2.0, 0, 10, SHARES);
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimiter l, Priority p, int max) {
+        int n = 0;
+        while (n < max && l.tryAcquire(p)) n++;
+        return n;
+    }
+
+    /** Runs one window: fill to {@code demand}, then release everything with the given latency. */
+    private static void window(AdaptiveConcurrencyLimiter l, int demand, long rttNanos) {
+        int n = acquireAll(l, Priority.READ, demand);
+        for (int i = 0; i < n; i++) l.release(rttNanos, false);
+    }
+
+    public void testLowerPrioritiesAreRejectedFirst() {
+        AdaptiveConcurrencyLimiter l = limiter(10);
+
+        assertEquals(5, acquireAll(l, Priority.LOGIN, 100));
+        assertEquals(3, acquireAll(l, Priority.SEARCH, 100));
+        assertEquals(2, acquireAll(l, Priority.READ, 100));
+        assertFalse(l.tryAcquire(Priority.READ));
+        assertEquals(10, l.getInFlight());
+
+        l.releaseWithoutSample();
+        assertFalse(l.tryAcquire(Priority.LOGIN));
+        assertTrue(l.tryAcquire(Priority.READ));
+        assertEquals(5, l.getRejected());
+    }
+
+    public void testLimitGrowsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter l = limiter(20);
+        for (int i = 0; i < 20; i++) window(l, 1000, 10 * MS);
+
+        assertTrue("limit " + l.getLimit(), l.getLimit() > 40);
+    }
+
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter l = limiter(50);
+        for (int i = 0; i < 5; i++) window(l, 1000, 10 * MS);
+        int before = l.getLimit();
+        for (int i = 0; i < 5; i++) window(l, 1000, 60 * MS);
+
+        assertTrue(l.getLimit() + " < " + before, l.getLimit() < before * 0.7);
+    }
+
+    public void testDroppedRequestsBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter l = limiter(100);
+        int n = acquireAll(l, Priority.READ, 10);
+        for (int i = 0; i < n; i++) l.release(10 * MS, i == 0);
+
+        assertEquals(90, l.getLimit());
+    }
+
+    public void testAppLimitedTrafficDoesNotRaiseTheLimit() {
+        AdaptiveConcurrencyLimiter l = limiter(100);
+        for (int i = 0; i < 50; i++) window(l, 10, 10 * MS);
+
+        assertEquals(100, l.getLimit());
+    }
+
+    /**
+     * A server with 16 workers where extra concurrency only queues (latency grows with
+     * in-flight / workers), driven by 160 clients that retry a millisecond after each
+     * rejection: the limit must settle near the point where latency starts rising instead
+     * of admitting the whole backlog, and completions must stay near capacity. Simulated
+     * time, one step per millisecond, with the production window of 200 ms.
+     */
+    public void testConvergesNearCapacityUnderOverload() {
+        int workers = 16, clients = 160;
+        long baseMs = 10;
+        long[] clock = {0};
+        AdaptiveConcurrencyLimiter l = new AdaptiveConcurrencyLimiter(8, 4, 200, 2.0, 200, 20, SHARES, () -> clock[0]);
+        PriorityQueue<long[]> running = new PriorityQueue<>(Comparator.comparingLong(r -> r[0]));
+        int idle = clients;
+        long completed = 0, latencySum = 0;
+        for (long now = 0; now < 120_000; now++) {
+            clock[0] = now * MS;
+            while (!running.isEmpty() && running.peek()[0] <= now) {
+                long[] r = running.poll();
+                l.release((now - r[1]) * MS, false);
+                idle++;
+                if (now >= 110_000) {
+                    completed++;
+                    latencySum += now - r[1];
+                }
+            }
+            while (idle > 0 && l.tryAcquire(Priority.READ)) {
+                idle--;
+                long latency = Math.round(baseMs * Math.max(1.0, (double) l.getInFlight() / workers));
+                running.add(new long[]{now + latency, now});
+            }
+        }
+
+        assertTrue("limit " + l.getLimit(), l.getLimit() >= workers && l.getLimit() <= 3 * workers);
+        // Capacity is 16 workers / 10 ms = 1.6 per ms; over the last 10 s
+        assertTrue("completed " + completed, completed >= 0.9 * 16_000);
+        assertTrue("mean latency " + latencySum / completed, latencySum / completed <= 3 * baseMs);
+    }
+}
@@ -0,0 +1,137 @@
+package com.localapp.service;
+
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link AiItineraryService} against a local stub LLM server speaking Gemini-style SSE.
+ */
+public class AiItineraryServiceTest extends TestCase {
+    private HttpServer server;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean holdResponses;
+
+    @Override
+    protected void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String part : new String[]{"Start at ", "the museum, ", "then dinner."}) {
+                    String data = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + part + "\"}]}}]}";
+                    out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    if (holdResponses) release.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() {
+        server.stop(0);
+    }
+
+    private AiItineraryService service(long tokensPerDay) {
+        return service(tokensPerDay, 110);
+    }
+
+    private AiItineraryService service(long tokensPerDay, long timeoutSeconds) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta/models/test:generateContent";
+        LlmClient llm = new LlmClient(LlmClient.restTemplate(1000, 2000), "gemini", url, "test", () -> "stub-key");
+        return new AiItineraryService(llm, new ItineraryService(), tokensPerDay, 256, timeoutSeconds, 4);
+    }
+
+    private static List<Map<String, Object>> events(String... ids) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (String id : ids) {
+            Map<String, Object> e = new HashMap<>();
+            e.put("id", id);
+            e.put("name", "Event " + id);
+            e.put("venue", "Venue " + id);
+            e.put("startDate", "2026-10-19T19:00:00Z");
+            list.add(e);
+        }
+        return list;
+    }
+
+    public void testStreamsPartialOutputAndCompletes() throws Exception {
+        List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+        String text = service(10_000).generate("u1", events("1", "2")).subscribe(chunks::add).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Start at the museum, then dinner.", text);
+        assertEquals(text, String.join("", chunks));
+    }
+
+    public void testCachesByEventSetRegardlessOfOrder() throws Exception {
+        AiItineraryService svc = service(10_000);
+        String first = svc.generate("u1", events("1", "2", "3")).subscribe(c -> { }).get(5, TimeUnit.SECONDS);
+        String second = svc.generate("u2", events("3", "1", "2")).subscribe(c -> { }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(first, second);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    public void testCoalescesConcurrentIdenticalRequests() throws Exception {
+        holdResponses = true;
+        AiItineraryService svc = service(10_000);
+        AiItineraryService.Generation a = svc.generate("u1", events("1", "2"));
+        AiItineraryService.Generation b = svc.generate("u2", events("2", "1"));
+        assertSame(a, b);
+
+        List<String> late = Collections.synchronizedList(new ArrayList<>());
+        release.countDown();
+        a.subscribe(c -> { }).get(5, TimeUnit.SECONDS);
+        b.subscribe(late::add).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Start at the museum, then dinner.", String.join("", late));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    public void testRejectsWhenTokenBudgetExhausted() {
+        AiItineraryService svc = service(100);
+        try {
+            svc.generate("u1", events("1"));
+            fail("Expected TokenBudgetExceededException");
+        } catch (TokenBudgetExceededException expected) {
+            assertEquals(0, upstreamCalls.get());
+        }
+    }
+
+    public void testAbortsHungGenerationAtDeadlineAndRefunds() throws Exception {
+        holdResponses = true;
+        // Room for one reservation, so the retry below only fits if the first was refunded
+        AiItineraryService svc = service(500, 1);
+        long t0 = System.nanoTime();
+        try {
+            svc.generate("u1", events("1", "2")).subscribe(c -> { }).get(4, TimeUnit.SECONDS);
+            fail("Expected the generation to time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(3));
+
+        holdResponses = false;
+        release.countDown();
+        String text = svc.generate("u1", events("1", "2")).subscribe(c -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals("Start at the museum, then dinner.", text);
+        assertEquals(2, upstreamCalls.get());
+    }
+}
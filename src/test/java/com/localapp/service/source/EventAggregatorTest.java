@@ -0,0 +1,136 @@
+package com.localapp.service.source;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.util.EventDeduplicator;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link EventAggregator} using local fake providers.
+ */
+public class EventAggregatorTest extends TestCase {
+    private static final EventQuery QUERY = new EventQuery("New York", "2026-10-19T00:00:00Z", "2026-10-19T23:59:59Z", null);
+
+    private static final class FakeSource implements EventSource {
+        final String name;
+        final long delayMillis;
+        final long timeoutMillis;
+        final boolean failing;
+        final String[] eventNames;
+        final AtomicInteger calls = new AtomicInteger();
+
+        FakeSource(String name, long delayMillis, long timeoutMillis, boolean failing, String... eventNames) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+            this.timeoutMillis = timeoutMillis;
+            this.failing = failing;
+            this.eventNames = eventNames;
+        }
+
+        @Override
+        public String getName() { return name; }
+
+        @Override
+        public long getTimeoutMillis() { return timeoutMillis; }
+
+        @Override
+        public List<Map<String, Object>> fetch(EventQuery query) throws Exception {
+            calls.incrementAndGet();
+            Thread.sleep(delayMillis);
+            if (failing) throw new IllegalStateException("upstream down");
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (String n : eventNames) {
+                Map<String, Object> e = new HashMap<>();
+                e.put("id", name + "-" + n);
+                e.put("name", n);
+                e.put("startDate", "2026-10-19T20:00:00Z");
+                e.put("venue", "Blue Note");
+                events.add(e);
+            }
+            return events;
+        }
+    }
+
+    private EventAggregator agg;
+
+    @Override
+    protected void tearDown() {
+        if (agg != null) agg.shutdown();
+    }
+
+    private EventAggregator aggregator(EventSource... sources) {
+        agg = new EventAggregator(List.of(sources), EventCacheFactory.local(Duration.ofSeconds(60)), new EventDeduplicator(true, 1800, 0.15));
+        return agg;
+    }
+
+    private static Set<String> names(List<Map<String, Object>> events) {
+        Set<String> s = new TreeSet<>();
+        for (Map<String, Object> e : events) s.add((String) e.get("name"));
+        return s;
+    }
+
+    public void testMergesAndDeduplicatesAcrossSources() {
+        FakeSource a = new FakeSource("a", 0, 1000, false, "Jazz Night", "Open Mic");
+        FakeSource b = new FakeSource("b", 0, 1000, false, "jazz night", "Trivia");
+        aggregator(a, b);
+
+        List<Map<String, Object>> events = agg.fetch(QUERY);
+
+        assertEquals(3, events.size());
+        assertEquals(new TreeSet<>(List.of("Jazz Night", "Open Mic", "Trivia")), names(events));
+    }
+
+    public void testReturnsPartialResultsWhenSourceIsSlow() {
+        FakeSource fast = new FakeSource("fast", 0, 1000, false, "Jazz Night");
+        FakeSource slow = new FakeSource("slow", 2000, 100, false, "Late Show");
+        aggregator(fast, slow);
+
+        long t0 = System.nanoTime();
+        List<Map<String, Object>> events = agg.fetch(QUERY);
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+        assertEquals(Set.of("Jazz Night"), names(events));
+        assertTrue("took " + elapsedMs + " ms", elapsedMs < 1000);
+        assertEquals(1, agg.getMetrics().get("slow").getTimeouts());
+    }
+
+    public void testFailingSourceDoesNotFailRequest() {
+        FakeSource ok = new FakeSource("ok", 0, 1000, false, "Jazz Night");
+        FakeSource broken = new FakeSource("broken", 0, 1000, true);
+        aggregator(ok, broken);
+
+        assertEquals(Set.of("Jazz Night"), names(agg.fetch(QUERY)));
+        assertEquals(1, agg.getMetrics().get("broken").getErrors());
+    }
+
+    public void testRejectsSearchWhenFetchPoolIsFull() {
+        // One thread and one queue slot: the third source of a single search has nowhere to go
+        agg = new EventAggregator(List.of(new FakeSource("a", 500, 1000, false, "Jazz Night"),
+                new FakeSource("b", 500, 1000, false, "Open Mic"), new FakeSource("c", 500, 1000, false, "Trivia")),
+                EventCacheFactory.local(Duration.ofSeconds(60)), new EventDeduplicator(true, 1800, 0.15), "full", 0, 0, 1, 1);
+        try {
+            agg.fetch(QUERY);
+            fail("Expected the search to be rejected");
+        } catch (RejectedExecutionException expected) {
+            // answered with 503 by GlobalExceptionHandler
+        }
+    }
+
+    public void testCachesPerSourceAndReturnsCopies() {
+        FakeSource a = new FakeSource("a", 0, 1000, false, "Jazz Night");
+        aggregator(a);
+
+        List<Map<String, Object>> first = agg.fetch(QUERY);
+        first.get(0).put("distanceMiles", 1.5);
+        List<Map<String, Object>> second = agg.fetch(QUERY);
+
+        assertEquals(1, a.calls.get());
+        assertEquals(1, agg.getMetrics().get("a").getCacheHits());
+        assertNull(second.get(0).get("distanceMiles"));
+        assertEquals("a", second.get(0).get("source"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.localapp.service.source;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.util.EventDeduplicator;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Tests for {@link IncrementalEventCache} and {@link EventSetVersion}.
+ */
+public class IncrementalEventCacheTest extends TestCase {
+    private static final EventQuery QUERY = new EventQuery("New York", "2026-10-19T00:00:00Z", "2026-10-19T23:59:59Z", null);
+
+    /** Upstream with modification times; the delta flag controls whether it filters by them. */
+    private static final class FakeSource implements EventSource {
+        final boolean delta;
+        final Map<String, Map<String, Object>> events = new LinkedHashMap<>();
+        final Map<String, Instant> modified = new HashMap<>();
+        final Set<String> cancelled = new HashSet<>();
+        final List<Instant> sinceSeen = new ArrayList<>();
+
+        FakeSource(boolean delta) {
+            this.delta = delta;
+        }
+
+        void put(String id, String name, Instant at) {
+            Map<String, Object> e = new HashMap<>();
+            e.put("id", id);
+            e.put("name", name);
+            e.put("venue", "Blue Note");
+            events.put(id, e);
+            modified.put(id, at);
+        }
+
+        void cancel(String id) {
+            cancelled.add(id);
+            modified.put(id, Instant.now());
+        }
+
+        @Override
+        public String getName() { return "fake"; }
+
+        @Override
+        public long getTimeoutMillis() { return 1000; }
+
+        @Override
+        public List<Map<String, Object>> fetch(EventQuery query) {
+            List<Map<String, Object>> out = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> e : events.entrySet()) {
+                if (!cancelled.contains(e.getKey())) out.add(new HashMap<>(e.getValue()));
+            }
+            return out;
+        }
+
+        @Override
+        public EventDelta fetchChanges(EventQuery query, Instant since) throws Exception {
+            sinceSeen.add(since);
+            if (!delta || since == null) return EventSource.super.fetchChanges(query, since);
+            List<Map<String, Object>> changed = new ArrayList<>();
+            Set<String> removed = new HashSet<>();
+            for (Map.Entry<String, Map<String, Object>> e : events.entrySet()) {
+                if (modified.get(e.getKey()).isBefore(since)) continue;
+                if (cancelled.contains(e.getKey())) removed.add(e.getKey());
+                else changed.add(new HashMap<>(e.getValue()));
+            }
+            return new EventDelta(changed, removed, false, -1);
+        }
+    }
+
+    private static Map<String, String> names(List<Map<String, Object>> events) {
+        Map<String, String> m = new TreeMap<>();
+        for (Map<String, Object> e : events) m.put((String) e.get("id"), (String) e.get("name"));
+        return m;
+    }
+
+    private static Map<String, Object> byId(List<Map<String, Object>> events, String id) {
+        for (Map<String, Object> e : events) if (id.equals(e.get("id"))) return e;
+        return null;
+    }
+
+    /** Refreshes on every read, on the calling thread. */
+    private static IncrementalEventCache cache(EventSource source, SourceMetrics metrics, int fullResyncEvery) {
+        return new IncrementalEventCache(source, metrics, Duration.ZERO, fullResyncEvery, Runnable::run);
+    }
+
+    public void testDeltaRefreshAppliesChangesAndKeepsUnchangedEvents() throws Exception {
+        Instant old = Instant.now().minusSeconds(600);
+        FakeSource src = new FakeSource(true);
+        src.put("a", "Jazz Night", old);
+        src.put("b", "Open Mic", old);
+        src.put("c", "Trivia", old);
+        SourceMetrics metrics = new SourceMetrics();
+        IncrementalEventCache cache = cache(src, metrics, 100);
+
+        List<Map<String, Object>> v1 = cache.load(QUERY);
+        assertEquals(3, v1.size());
+
+        src.put("b", "Open Mic (moved to 9pm)", Instant.now());
+        src.put("d", "Salsa Social", Instant.now());
+        src.cancel("c");
+        List<Map<String, Object>> v2 = cache.getIfPresent(QUERY);
+
+        assertEquals(Map.of("a", "Jazz Night", "b", "Open Mic (moved to 9pm)", "d", "Salsa Social"), names(v2));
+        assertSame(byId(v1, "a"), byId(v2, "a"));
+        assertNull(src.sinceSeen.get(0));
+        assertNotNull(src.sinceSeen.get(1));
+        // The earlier version is untouched for readers still holding it
+        assertEquals(Map.of("a", "Jazz Night", "b", "Open Mic", "c", "Trivia"), names(v1));
+        assertEquals("fake", byId(v2, "d").get("source"));
+
+        Map<String, Object> snap = metrics.snapshot();
+        assertEquals(1L, snap.get("fullRefreshes"));
+        assertEquals(1L, snap.get("deltaRefreshes"));
+        assertEquals(6L, snap.get("eventsChanged"));
+    }
+
+    public void testSnapshotSourceIsDiffedByContentHash() throws Exception {
+        FakeSource src = new FakeSource(false);
+        src.put("a", "Jazz Night", Instant.now());
+        src.put("b", "Open Mic", Instant.now());
+        IncrementalEventCache cache = cache(src, new SourceMetrics(), 100);
+
+        List<Map<String, Object>> v1 = cache.load(QUERY);
+        src.events.remove("b");
+        src.put("c", "Trivia", Instant.now());
+        List<Map<String, Object>> v2 = cache.getIfPresent(QUERY);
+
+        assertEquals(Map.of("a", "Jazz Night", "c", "Trivia"), names(v2));
+        assertSame(byId(v1, "a"), byId(v2, "a"));
+    }
+
+    public void testPeriodicFullResyncCatchesSilentRemovals() throws Exception {
+        Instant old = Instant.now().minusSeconds(600);
+        FakeSource src = new FakeSource(true);
+        src.put("a", "Jazz Night", old);
+        src.put("b", "Open Mic", old);
+        IncrementalEventCache cache = cache(src, new SourceMetrics(), 2);
+        cache.load(QUERY);
+
+        // Dropped upstream without a cancellation record: invisible to changed-since queries
+        src.events.remove("b");
+        assertEquals(2, cache.getIfPresent(QUERY).size());
+        assertEquals(2, cache.getIfPresent(QUERY).size());
+        assertEquals(Map.of("a", "Jazz Night"), names(cache.getIfPresent(QUERY)));
+        assertNull(src.sinceSeen.get(3));
+    }
+
+    public void testEventsWithoutIdForceFullRefresh() throws Exception {
+        Instant old = Instant.now().minusSeconds(600);
+        FakeSource src = new FakeSource(true);
+        src.put("a", "Jazz Night", old);
+        src.put("x", "Street Fair", old);
+        src.events.get("x").remove("id");
+        IncrementalEventCache cache = cache(src, new SourceMetrics(), 100);
+        cache.load(QUERY);
+
+        // Renamed upstream: keyed by content hash, a delta could not tell it replaces the old entry
+        src.put("x", "Street Fair (rain date)", Instant.now());
+        src.events.get("x").remove("id");
+        List<Map<String, Object>> v2 = cache.getIfPresent(QUERY);
+
+        assertEquals(2, v2.size());
+        assertEquals(Map.of("a", "Jazz Night"), names(List.of(byId(v2, "a"))));
+        assertTrue(v2.stream().anyMatch(e -> "Street Fair (rain date)".equals(e.get("name"))));
+        assertNull(src.sinceSeen.get(1));
+    }
+
+    public void testUnchangedRefreshKeepsVersion() {
+        Map<String, Object> e = new HashMap<>(Map.of("id", "a", "name", "Jazz Night"));
+        EventSetVersion v1 = EventSetVersion.empty().apply(EventDelta.snapshot(List.of(e), -1), Instant.now());
+        EventSetVersion v2 = v1.apply(EventDelta.snapshot(List.of(new HashMap<>(e)), -1), Instant.now());
+
+        assertEquals(1, v1.getVersion());
+        assertEquals(1, v2.getVersion());
+        assertSame(v1.getEvents(), v2.getEvents());
+        assertEquals(EventSetVersion.contentHash(Map.of("x", 1, "y", "z")), EventSetVersion.contentHash(new TreeMap<>(Map.of("y", "z", "x", 1))));
+    }
+
+    public void testAggregatorServesIncrementalResults() {
+        FakeSource src = new FakeSource(true);
+        src.put("a", "Jazz Night", Instant.now());
+        EventAggregator agg = new EventAggregator(List.of(src), EventCacheFactory.local(Duration.ofSeconds(60)),
+                new EventDeduplicator(true, 1800, 0.15), "incremental", 60, 12);
+
+        assertEquals(1, agg.fetch(QUERY).size());
+        assertEquals(1, agg.fetch(QUERY).size());
+        assertEquals(1, src.sinceSeen.size());
+        assertEquals(1L, agg.getMetrics().get("fake").getCacheHits());
+    }
+}
@@ -0,0 +1,142 @@
+package com.localapp.service.source;
+
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link RequestHedger} against a local stub upstream that injects tail latency.
+ */
+public class RequestHedgerTest extends TestCase {
+    private static final long TAIL_MILLIS = 600;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger tails = new AtomicInteger();
+
+    @Override
+    protected void setUp() throws Exception {
+        // Every 25th request stalls before answering, like an occasional slow Eventbrite response
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            int n = requests.incrementAndGet();
+            try {
+                if (n % 25 == 7) {
+                    tails.incrementAndGet();
+                    Thread.sleep(TAIL_MILLIS);
+                } else {
+                    Thread.sleep(3);
+                }
+                byte[] body = "{\"events\":[]}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                // client gave up on this request
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public void testHedgingCutsInjectedTailAndCancelsLoser() throws Exception {
+        RestTemplate http = new RestTemplate(new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()));
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v3/events/search/";
+        // The delay floor keeps ordinary jitter from spending the budget meant for the stalls
+        RequestHedger hedger = new RequestHedger(0.95, 100, 0.05, 20, executor);
+        AtomicInteger aborted = new AtomicInteger();
+        // Connection setup would otherwise count as a slow sample
+        http.getForObject(url, byte[].class);
+
+        long[] latencies = new long[150];
+        for (int i = 0; i < latencies.length; i++) {
+            long t0 = System.nanoTime();
+            byte[] body = hedger.call(() -> {
+                long start = System.nanoTime();
+                try {
+                    return http.getForObject(url, byte[].class);
+                } catch (Exception e) {
+                    if (System.nanoTime() - start < TAIL_MILLIS * 1_000_000 / 2) aborted.incrementAndGet();
+                    throw e;
+                }
+            });
+            latencies[i] = (System.nanoTime() - t0) / 1_000_000;
+            assertEquals("{\"events\":[]}", new String(body, StandardCharsets.UTF_8));
+        }
+
+        // After the warm-up no caller waits for a stalled response
+        long[] afterWarmup = Arrays.copyOfRange(latencies, 40, latencies.length);
+        Arrays.sort(afterWarmup);
+        assertTrue("tail latency " + afterWarmup[afterWarmup.length - 1], afterWarmup[afterWarmup.length - 1] < TAIL_MILLIS / 2);
+        assertTrue(tails.get() >= 5);
+
+        assertTrue(hedger.getHedges() > 0);
+        assertTrue("hedges " + hedger.getHedges(), hedger.getHedges() <= hedger.getCalls() * 0.05);
+        assertEquals(hedger.getHedges(), hedger.getHedgeWins());
+        assertEquals(1 + hedger.getCalls() + hedger.getHedges(), requests.get());
+        assertEquals(hedger.getHedgeWins(), hedger.snapshot().get("cancelled"));
+
+        // The stalled primaries were aborted rather than left waiting for their response
+        long deadline = System.currentTimeMillis() + 2000;
+        while (aborted.get() < hedger.getHedgeWins() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(hedger.getHedgeWins(), aborted.get());
+    }
+
+    public void testBudgetCapsExtraCallsWhenUpstreamIsUniformlySlow() throws Exception {
+        // Hedging at the median would send a duplicate for about half of all calls without the budget
+        RequestHedger hedger = new RequestHedger(0.5, 1, 0.05, 20, executor);
+        Random random = new Random(7);
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 300; i++) {
+            long sleep = 2 + random.nextInt(6);
+            hedger.call(() -> {
+                attempts.incrementAndGet();
+                Thread.sleep(sleep);
+                return "ok";
+            });
+        }
+
+        assertTrue("hedges " + hedger.getHedges(), hedger.getHedges() <= 300 * 0.05);
+        assertTrue(hedger.getHedges() >= 5);
+        assertTrue((long) hedger.snapshot().get("budgetDenied") > 0);
+        // A hedge still queued when the primary finishes is cancelled before it starts
+        assertTrue(attempts.get() <= 300 + hedger.getHedges());
+        assertTrue(hedger.getDelayMillis() >= 1);
+    }
+
+    public void testFailureIsNotHedgedAndPropagates() {
+        RequestHedger hedger = new RequestHedger(0.95, 1, 0.05, 1, executor);
+        try {
+            hedger.call(() -> {
+                throw new IllegalStateException("upstream down");
+            });
+            fail("expected failure");
+        } catch (Exception e) {
+            assertEquals("upstream down", e.getMessage());
+        }
+        assertEquals(0, hedger.getHedges());
+    }
+}
@@ -0,0 +1,205 @@
+package com.localapp.service.store;
+
+import com.localapp.cache.EventCacheFactory;
+import com.localapp.service.source.EventAggregator;
+import com.localapp.service.source.EventQuery;
+import com.localapp.service.source.EventSource;
+import com.localapp.util.EventDeduplicator;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link CityEventStore} over a fake provider that serves fixed events per day.
+ */
+public class CityEventStoreTest extends TestCase {
+    private static class DaySource implements EventSource {
+        final List<EventQuery> queries = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger calls = new AtomicInteger();
+        volatile long delayMillis;
+        volatile boolean failing;
+
+        @Override
+        public String getName() { return "fake"; }
+
+        @Override
+        public long getTimeoutMillis() { return 5000; }
+
+        @Override
+        public List<Map<String, Object>> fetch(EventQuery query) throws Exception {
+            calls.incrementAndGet();
+            queries.add(query);
+            Thread.sleep(delayMillis);
+            if (failing) throw new IllegalStateException("upstream unavailable");
+            String day = query.start().substring(0, 10);
+            List<Map<String, Object>> events = new ArrayList<>();
+            // Deliberately out of order; one event without a start time
+            events.add(event(day + "-late", day + "T22:00:00Z", "Blue Note"));
+            events.add(event(day + "-early", day + "T09:30:00Z", "Blue Note"));
+            events.add(event(day + "-noon", day + "T12:00:00Z", "Village Vanguard"));
+            events.add(event(day + "-tba", null, "Smalls"));
+            return events;
+        }
+
+        private static Map<String, Object> event(String name, String start, String venue) {
+            Map<String, Object> e = new HashMap<>();
+            e.put("id", name);
+            e.put("name", name);
+            if (start != null) e.put("startDate", start);
+            e.put("venue", venue);
+            e.put("city", "New York");
+            e.put("latitude", 40.73);
+            e.put("longitude", -74.0);
+            return e;
+        }
+    }
+
+    private DaySource source;
+    private CityEventStore store;
+
+    @Override
+    protected void setUp() {
+        source = new DaySource();
+        EventAggregator agg = new EventAggregator(List.of(source), EventCacheFactory.local(Duration.ofSeconds(60)),
+                new EventDeduplicator(false, 1800, 0.15));
+        store = new CityEventStore(agg, 60, 100);
+    }
+
+    private static List<String> names(List<Map<String, Object>> events) {
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> e : events) names.add((String) e.get("name"));
+        return names;
+    }
+
+    public void testDayIsSortedWithUntimedEventsLast() {
+        List<Map<String, Object>> events = store.day("New York", null, LocalDate.parse("2026-10-19"));
+
+        assertEquals(List.of("2026-10-19-early", "2026-10-19-noon", "2026-10-19-late", "2026-10-19-tba"), names(events));
+        Map<String, Object> first = events.get(0);
+        assertEquals("Blue Note", first.get("venue"));
+        assertEquals("2026-10-19T09:30:00Z", first.get("startDate"));
+        assertEquals(40.73, (Double) first.get("latitude"), 1e-4);
+        assertEquals("fake", first.get("source"));
+    }
+
+    public void testWindowsOverTheSameDayShareOneUpstreamQuery() {
+        store.day("New York", null, LocalDate.parse("2026-10-19"));
+        List<Map<String, Object>> evening = store.window("New York", null,
+                Instant.parse("2026-10-19T11:00:00Z"), Instant.parse("2026-10-19T22:00:00Z"));
+
+        assertEquals(List.of("2026-10-19-noon", "2026-10-19-late"), names(evening));
+        assertEquals(1, source.calls.get());
+        assertEquals("2026-10-19T00:00:00Z", source.queries.get(0).start());
+    }
+
+    public void testMultiDayWindowMergesSegmentsInTimeOrder() {
+        List<Map<String, Object>> events = store.window("New York", null,
+                Instant.parse("2026-10-19T20:00:00Z"), Instant.parse("2026-10-20T10:00:00Z"));
+
+        assertEquals(List.of("2026-10-19-late", "2026-10-20-early"), names(events));
+        assertEquals(2, source.calls.get());
+    }
+
+    public void testDaysOfAWindowLoadInParallel() {
+        source.delayMillis = 400;
+        long t0 = System.nanoTime();
+        List<Map<String, Object>> events = store.window("New York", null,
+                Instant.parse("2026-10-19T20:00:00Z"), Instant.parse("2026-10-21T10:00:00Z"));
+        long elapsedMillis = (System.nanoTime() - t0) / 1_000_000;
+
+        assertEquals(6, events.size());
+        assertEquals(3, source.calls.get());
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+    }
+
+    public void testDayWithAFailedSourceIsNotKept() {
+        LocalDate day = LocalDate.parse("2026-10-19");
+        source.failing = true;
+        assertTrue(store.day("New York", null, day).isEmpty());
+        assertEquals(0, store.stats().get("segments"));
+
+        source.failing = false;
+        assertEquals(4, store.day("New York", null, day).size());
+        assertEquals(1, store.stats().get("segments"));
+    }
+
+    public void testReturnedMapsAreIndependentCopies() {
+        LocalDate day = LocalDate.parse("2026-10-19");
+        store.day("New York", null, day).get(0).put("distanceMiles", 1.5);
+
+        assertNull(store.day("New York", null, day).get(0).get("distanceMiles"));
+    }
+
+    public void testRejectsOverlongAndReversedWindows() {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        try {
+            store.window("New York", null, from, from.plus(Duration.ofDays(CityEventStore.MAX_DAYS)));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            store.window("New York", null, from, from.minusSeconds(1));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, source.calls.get());
+    }
+
+    public void testViewportClustersLocatedEventsOfTheDay() {
+        Map<String, Object> view = store.viewport("New York", LocalDate.parse("2026-10-19"), 40.70, -74.02, 40.76, -73.96, 12);
+
+        assertEquals(14, view.get("level"));
+        assertEquals(4, view.get("total"));
+        List<?> clusters = (List<?>) view.get("clusters");
+        assertEquals(1, clusters.size());
+        assertEquals(4, ((Map<?, ?>) clusters.get(0)).get("count"));
+
+        try {
+            store.viewport("New York", LocalDate.parse("2026-10-19"), 30, -80, 50, -60, 16);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testHighestZoomShowsEventsOfADenseBlockSeparately() {
+        // A 5 x 5 grid of venues about 20 m apart
+        EventSource block = new DaySource() {
+            @Override
+            public List<Map<String, Object>> fetch(EventQuery query) {
+                List<Map<String, Object>> events = new ArrayList<>();
+                for (int i = 0; i < 25; i++) {
+                    Map<String, Object> e = new HashMap<>();
+                    e.put("id", "v" + i);
+                    e.put("name", "Venue " + i);
+                    e.put("startDate", "2026-10-19T20:00:00Z");
+                    e.put("latitude", 40.7305 + (i / 5) * 0.00018);
+                    e.put("longitude", -74.0005 + (i % 5) * 0.00024);
+                    events.add(e);
+                }
+                return events;
+            }
+        };
+        CityEventStore dense = new CityEventStore(new EventAggregator(List.of(block),
+                EventCacheFactory.local(Duration.ofSeconds(60)), new EventDeduplicator(false, 1800, 0.15)), 60, 100);
+
+        Map<String, Object> view = dense.viewport("New York", LocalDate.parse("2026-10-19"), 40.7300, -74.0010, 40.7320, -73.9990, 20);
+
+        assertEquals(25, view.get("total"));
+        List<?> clusters = (List<?>) view.get("clusters");
+        assertEquals(25, clusters.size());
+        for (Object c : clusters) assertEquals(1, ((Map<?, ?>) c).get("count"));
+    }
+
+    public void testStatsReportFootprint() {
+        store.day("New York", null, LocalDate.parse("2026-10-19"));
+        Map<String, Object> stats = store.stats();
+
+        assertEquals(1, stats.get("segments"));
+        assertEquals(4L, stats.get("events"));
+        assertTrue((Long) stats.get("bytes") > 0);
+    }
+}
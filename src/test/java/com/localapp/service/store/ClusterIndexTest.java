@@ -0,0 +1,140 @@
+package com.localapp.service.store;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+/**
+ * Tests for {@link ClusterIndex} over hand-built day segments.
+ */
+public class ClusterIndexTest extends TestCase {
+    private static final long DAY = 1_792_368_000L; // 2026-10-19T00:00:00Z
+    // Around lower Manhattan
+    private static final double SOUTH = 40.70, WEST = -74.02, NORTH = 40.76, EAST = -73.96;
+
+    private static Map<String, Object> event(String id, double lat, double lon, String start) {
+        Map<String, Object> e = new HashMap<>();
+        e.put("id", id);
+        e.put("name", "Event " + id);
+        e.put("startDate", "2026-10-19T" + start + ":00Z");
+        e.put("latitude", lat);
+        e.put("longitude", lon);
+        return e;
+    }
+
+    private static List<Map<String, Object>> events() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        // Three at one venue, two a couple of blocks away, one across town
+        events.add(event("a1", 40.7306, -74.0003, "21:00"));
+        events.add(event("a2", 40.7306, -74.0003, "19:00"));
+        events.add(event("a3", 40.7306, -74.0003, "23:00"));
+        events.add(event("b1", 40.7340, -73.9910, "20:00"));
+        events.add(event("b2", 40.7342, -73.9912, "18:00"));
+        events.add(event("c1", 40.7580, -73.9855, "20:30"));
+        return events;
+    }
+
+    private static Map<String, Integer> counts(List<ClusterIndex.Cluster> clusters) {
+        Map<String, Integer> m = new TreeMap<>();
+        for (ClusterIndex.Cluster c : clusters) m.put(c.level() + "/" + c.x() + "/" + c.y(), c.count());
+        return m;
+    }
+
+    public void testLowZoomMergesEverythingIntoOneCluster() {
+        ClusterIndex index = new ClusterIndex();
+        List<ClusterIndex.Cluster> clusters = index.query(new DaySegment(DAY, events()), 8, SOUTH, WEST, NORTH, EAST);
+
+        assertEquals(1, clusters.size());
+        ClusterIndex.Cluster c = clusters.get(0);
+        assertEquals(6, c.count());
+        assertEquals(40.73, c.latitude(), 0.01);
+        // Representatives are the earliest events of the cluster
+        assertEquals(List.of("b2", "a2", "b1"), ids(c.events()));
+    }
+
+    public void testHighZoomSeparatesVenuesButNotNeighbours() {
+        ClusterIndex index = new ClusterIndex();
+        List<ClusterIndex.Cluster> clusters = index.query(new DaySegment(DAY, events()), 18, SOUTH, WEST, NORTH, EAST);
+
+        List<Integer> sizes = new ArrayList<>();
+        for (ClusterIndex.Cluster c : clusters) sizes.add(c.count());
+        Collections.sort(sizes);
+        assertEquals(List.of(1, 2, 3), sizes);
+    }
+
+    public void testViewportOnlyReturnsCellsInside() {
+        ClusterIndex index = new ClusterIndex();
+        List<ClusterIndex.Cluster> clusters = index.query(new DaySegment(DAY, events()), 14, 40.75, -73.99, 40.76, -73.98);
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of("c1"), ids(clusters.get(0).events()));
+    }
+
+    public void testSyncAppliesOnlyTheDifference() {
+        ClusterIndex index = new ClusterIndex();
+        index.sync(new DaySegment(DAY, events()));
+        assertEquals(6, index.lastChanges()[0]);
+
+        List<Map<String, Object>> next = events();
+        next.removeIf(e -> e.get("id").equals("b2"));                 // removed, was a representative
+        next.get(0).put("startDate", "2026-10-19T17:00:00Z");         // a1 rescheduled
+        next.add(event("d1", 40.7128, -74.0060, "22:00"));            // new
+        DaySegment segment = new DaySegment(DAY, next);
+        index.sync(segment);
+
+        assertEquals(2, index.lastChanges()[0]);
+        assertEquals(2, index.lastChanges()[1]);
+        assertEquals(6, index.size());
+
+        // Same cells, counts and representatives as a freshly built index
+        ClusterIndex fresh = new ClusterIndex();
+        for (int level : new int[]{6, 12, 15, 18}) {
+            List<ClusterIndex.Cluster> incremental = index.query(segment, level, SOUTH, WEST, NORTH, EAST);
+            List<ClusterIndex.Cluster> rebuilt = fresh.query(segment, level, SOUTH, WEST, NORTH, EAST);
+            assertEquals(counts(rebuilt), counts(incremental));
+            assertEquals(representatives(rebuilt), representatives(incremental));
+        }
+        assertEquals(List.of("a1", "a2", "b1"), ids(index.query(segment, 6, SOUTH, WEST, NORTH, EAST).get(0).events()));
+    }
+
+    public void testEventsWithoutIdAreMatchedByContent() {
+        ClusterIndex index = new ClusterIndex();
+        List<Map<String, Object>> events = events();
+        for (Map<String, Object> e : events) e.remove("id");
+        index.sync(new DaySegment(DAY, events));
+
+        // An earlier event shifts every position in the segment; none of the others changed
+        List<Map<String, Object>> next = new ArrayList<>(events);
+        Map<String, Object> early = event("e1", 40.7200, -74.0100, "08:00");
+        early.remove("id");
+        next.add(early);
+        index.sync(new DaySegment(DAY, next));
+
+        assertEquals(1, index.lastChanges()[0]);
+        assertEquals(0, index.lastChanges()[1]);
+        assertEquals(7, index.size());
+    }
+
+    public void testTileCoordinates() {
+        assertEquals(0, ClusterIndex.tileX(-180, 1));
+        assertEquals(1, ClusterIndex.tileX(180, 1));
+        assertEquals(0, ClusterIndex.tileY(89, 1));
+        assertEquals(1, ClusterIndex.tileY(-89, 1));
+        // Parent cell key is the child key shifted by two bits
+        long child = ClusterIndex.interleave(ClusterIndex.tileX(-74.0, 12), ClusterIndex.tileY(40.73, 12));
+        long parent = ClusterIndex.interleave(ClusterIndex.tileX(-74.0, 11), ClusterIndex.tileY(40.73, 11));
+        assertEquals(parent, child >>> 2);
+    }
+
+    private static List<String> ids(List<Map<String, Object>> events) {
+        List<String> ids = new ArrayList<>();
+        for (Map<String, Object> e : events) ids.add((String) e.get("id"));
+        return ids;
+    }
+
+    private static Map<String, List<String>> representatives(List<ClusterIndex.Cluster> clusters) {
+        Map<String, List<String>> m = new TreeMap<>();
+        for (ClusterIndex.Cluster c : clusters) m.put(c.x() + "/" + c.y(), ids(c.events()));
+        return m;
+    }
+}
@@ -0,0 +1,57 @@
+package com.localapp.util;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link DistanceMatrix}.
+ */
+public class DistanceMatrixTest extends TestCase {
+
+    private static double[][] randomPoints(int n, long seed, double spreadDeg) {
+        Random r = new Random(seed);
+        double[] lat = new double[n], lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 40.7 + (r.nextDouble() - 0.5) * spreadDeg;
+            lon[i] = -74.0 + (r.nextDouble() - 0.5) * spreadDeg;
+        }
+        return new double[][]{lat, lon};
+    }
+
+    private static void assertMatchesHaversine(double[][] o, double[][] p, DistanceMatrix.Kernel kernel) {
+        double[] m = DistanceMatrix.compute(new DistanceMatrix.Points(o[0], o[1]), new DistanceMatrix.Points(p[0], p[1]), kernel);
+        int cols = p[0].length;
+        for (int i = 0; i < o[0].length; i++) {
+            for (int j = 0; j < cols; j++) {
+                double expected = DistanceUtil.haversine(o[0][i], o[1][i], p[0][j], p[1][j]);
+                assertEquals(expected, m[i * cols + j], 1e-6 + expected * 1e-9);
+            }
+        }
+    }
+
+    public void testScalarMatchesHaversine() {
+        assertMatchesHaversine(randomPoints(3, 1, 0.5), randomPoints(37, 2, 0.5), DistanceMatrix.Kernel.SCALAR);
+    }
+
+    public void testVectorMatchesHaversineIncludingLongDistances() {
+        // Wide spread exercises the arcsine fallback for lanes beyond the polynomial range
+        assertMatchesHaversine(randomPoints(4, 3, 0.2), randomPoints(101, 4, 60), DistanceMatrix.Kernel.VECTOR);
+        assertMatchesHaversine(randomPoints(4, 5, 0.2), randomPoints(101, 6, 0.2), DistanceMatrix.Kernel.AUTO);
+    }
+
+    public void testParallelBlocksMatchSequential() {
+        double[][] o = randomPoints(20, 7, 1);
+        double[][] p = randomPoints(9000, 8, 1);
+        double[] big = DistanceMatrix.compute(o[0], o[1], p[0], p[1]);
+        for (int i = 0; i < 20; i++) {
+            double[] row = DistanceMatrix.compute(new double[]{o[0][i]}, new double[]{o[1][i]}, p[0], p[1]);
+            for (int j = 0; j < row.length; j++) assertEquals(row[j], big[i * 9000 + j], 0.0);
+        }
+    }
+
+    public void testSamePointIsZero() {
+        double[] m = DistanceMatrix.compute(new double[]{40.7}, new double[]{-74.0}, new double[]{40.7}, new double[]{-74.0});
+        assertEquals(0.0, m[0], 1e-9);
+    }
+}
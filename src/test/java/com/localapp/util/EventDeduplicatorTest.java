@@ -0,0 +1,101 @@
+package com.localapp.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link EventDeduplicator}.
+ */
+public class EventDeduplicatorTest extends TestCase {
+    private final EventDeduplicator exactOnly = new EventDeduplicator(false, 1800, 0.15);
+    private final EventDeduplicator withNear = new EventDeduplicator(true, 1800, 0.15);
+
+    private static Map<String, Object> event(String name, String start, String venue, Double lat, Double lon) {
+        Map<String, Object> e = new HashMap<>();
+        e.put("name", name);
+        e.put("startDate", start);
+        e.put("venue", venue);
+        e.put("latitude", lat);
+        e.put("longitude", lon);
+        return e;
+    }
+
+    public void testExactPassIgnoresCaseAndPunctuation() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        events.add(event("Jazz Night", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+        events.add(event("jazz night!", "2026-10-19T20:00:00Z", "BLUE NOTE", null, null));
+        events.add(event("Jazz Night", "2026-10-20T20:00:00Z", "Blue Note", null, null));
+
+        assertEquals(2, exactOnly.dedupe(events).size());
+    }
+
+    public void testExactPassKeepsWordBoundaries() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        events.add(event("ab c", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+        events.add(event("a bc", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+        events.add(event("  A   BC ", "2026-10-19T20:00:00Z", "Blue  Note", null, null));
+
+        assertEquals(2, exactOnly.dedupe(events).size());
+    }
+
+    public void testNearPassLeavesUnnamedEventsWithoutVenueAlone() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        events.add(event(null, "2026-10-19T20:00:00Z", null, null, null));
+        events.add(event("The", "2026-10-19T20:05:00Z", null, null, null));
+        events.add(event("Live at the", "2026-10-19T20:10:00Z", null, null, null));
+        events.add(event("Jazz Night", "2026-10-19T20:00:00Z", null, null, null));
+        events.add(event("Jazz Night", "2026-10-19T20:10:00Z", null, null, null));
+
+        assertEquals(0.0, EventDeduplicator.venueContainment(null, null));
+        assertEquals(5, withNear.dedupe(events).size());
+    }
+
+    public void testNearPassCollapsesVenueVariantsAndSmallTimeShifts() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        events.add(event("Late Night Jazz Jam", "2026-10-19T20:00:00Z", "The Blue Note", null, null));
+        events.add(event("Late Night Jazz Jam", "2026-10-19T20:15:00Z", "Blue Note NYC", null, null));
+        events.add(event("Late Night Jazz Jam", "2026-10-19T23:00:00Z", "Blue Note NYC", null, null));
+
+        assertEquals(3, exactOnly.dedupe(new ArrayList<>(events)).size());
+        assertEquals(2, withNear.dedupe(events).size());
+    }
+
+    public void testNearPassUsesCoordinatesAndFillsMissingFields() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        Map<String, Object> first = event("Comedy Showcase", "2026-10-19T21:00:00Z", "Cellar", 40.7304, -74.0006);
+        Map<String, Object> second = event("Comedy Showcase", "2026-10-19T21:00:00Z", "Comedy Cellar", 40.7305, -74.0007);
+        second.put("image", "https://img.example/cellar.jpg");
+        Map<String, Object> farAway = event("Comedy Showcase", "2026-10-19T21:00:00Z", "Cellar Uptown", 40.80, -73.95);
+        events.add(first);
+        events.add(second);
+        events.add(farAway);
+
+        List<Map<String, Object>> result = withNear.dedupe(events);
+
+        assertEquals(2, result.size());
+        assertSame(first, result.get(0));
+        assertEquals("https://img.example/cellar.jpg", first.get("image"));
+    }
+
+    public void testDifferentEventsAreKept() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        events.add(event("Jazz Night", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+        events.add(event("Karaoke Party", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+        events.add(event("Trivia Tuesday", "2026-10-19T20:00:00Z", "Blue Note", null, null));
+
+        assertEquals(3, withNear.dedupe(events).size());
+    }
+
+    public void testLongHashSetGrowsAndHandlesZero() {
+        LongHashSet set = new LongHashSet(2);
+        for (long i = 0; i < 1000; i++) assertTrue(set.add(i * 31));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(31 * 999));
+        assertFalse(set.contains(7));
+        assertEquals(1000, set.size());
+    }
+}
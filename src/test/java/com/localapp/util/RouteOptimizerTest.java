@@ -0,0 +1,77 @@
+package com.localapp.util;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link RouteOptimizer}.
+ */
+public class RouteOptimizerTest extends TestCase {
+
+    public void testOrdersTimedStopsByStartTime() {
+        double[] lat = {40.75, 40.76, 40.70};
+        double[] lon = {-73.99, -73.98, -74.01};
+        int[] window = {240, 0, 120};
+
+        RouteOptimizer.Result r = RouteOptimizer.optimize(lat, lon, window, 60, RouteOptimizer.Mode.DRIVE, 100);
+
+        assertTrue(Arrays.equals(new int[]{1, 2, 0}, r.order));
+        assertEquals(0, r.totalLateMin);
+    }
+
+    public void testVisitsUntimedStopsAlongShortestPath() {
+        double[] lat = {40.70, 40.80, 40.75, 40.85};
+        double[] lon = {-74.00, -74.00, -74.00, -74.00};
+        int[] window = new int[4];
+        Arrays.fill(window, RouteOptimizer.NO_WINDOW);
+
+        RouteOptimizer.Result r = RouteOptimizer.optimize(lat, lon, window, 0, RouteOptimizer.Mode.WALK, 100);
+
+        int[] order = r.order;
+        assertTrue(Arrays.equals(new int[]{0, 2, 1, 3}, order) || Arrays.equals(new int[]{3, 1, 2, 0}, order));
+    }
+
+    public void testSixtyStopsGiveAPermutation() {
+        Stops s = randomStops(60);
+        RouteOptimizer.Result r = RouteOptimizer.optimize(s.lat, s.lon, s.window, 20, RouteOptimizer.Mode.DRIVE, 50);
+        assertPermutation(r.order, 60);
+        assertEquals(60, r.arrivalMin.length);
+    }
+
+    public void testConstructionStopsInsertingOncePastDeadline() {
+        // Nearest insertion over this many stops runs for minutes, so finishing at all shows the deadline was honored
+        Stops s = randomStops(2000);
+        RouteOptimizer.Result r = RouteOptimizer.optimize(s.lat, s.lon, s.window, 20, RouteOptimizer.Mode.DRIVE, 0);
+        assertPermutation(r.order, 2000);
+    }
+
+    private static final class Stops {
+        final double[] lat, lon;
+        final int[] window;
+
+        Stops(int n) {
+            lat = new double[n];
+            lon = new double[n];
+            window = new int[n];
+        }
+    }
+
+    private static Stops randomStops(int n) {
+        Random rnd = new Random(7);
+        Stops s = new Stops(n);
+        for (int i = 0; i < n; i++) {
+            s.lat[i] = 40.70 + rnd.nextDouble() * 0.12;
+            s.lon[i] = -74.02 + rnd.nextDouble() * 0.08;
+            s.window[i] = rnd.nextInt(600);
+        }
+        return s;
+    }
+
+    private static void assertPermutation(int[] order, int n) {
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) assertEquals(i, sorted[i]);
+    }
+}